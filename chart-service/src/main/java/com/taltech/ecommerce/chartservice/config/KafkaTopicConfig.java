@@ -0,0 +1,21 @@
+package com.taltech.ecommerce.chartservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    @Value("${kafka.topic.partitions}")
+    private int partitions;
+
+    @Bean
+    public KafkaAdmin.NewTopics chartTopics() {
+        return new KafkaAdmin.NewTopics(
+            TopicBuilder.name("deleteChartTopic").partitions(partitions).build(),
+            TopicBuilder.name("rollbackChartTopic").partitions(partitions).build());
+    }
+}
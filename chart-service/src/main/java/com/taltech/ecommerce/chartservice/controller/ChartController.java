@@ -0,0 +1,89 @@
+package com.taltech.ecommerce.chartservice.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.taltech.ecommerce.chartservice.dto.ArchivedChartDto;
+import com.taltech.ecommerce.chartservice.dto.ChartDto;
+import com.taltech.ecommerce.chartservice.dto.ChartItemDto;
+import com.taltech.ecommerce.chartservice.service.ChartArchiveService;
+import com.taltech.ecommerce.chartservice.service.ChartStore;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/chart/{userId}")
+@RequiredArgsConstructor
+@Slf4j
+public class ChartController {
+
+    private final ChartStore chartStore;
+    private final ChartArchiveService archiveService;
+
+    @GetMapping
+    @ResponseStatus(HttpStatus.OK)
+    public ChartDto findChart(@PathVariable("userId") Long userId) {
+        log.debug("Received chart request for userId '{}'", userId);
+
+        return chartStore.find(userId);
+    }
+
+    /**
+     * Adds the quantity of the item to the chart, taking the price of the request.
+     */
+    @PostMapping("/items")
+    @ResponseStatus(HttpStatus.OK)
+    public ChartDto addItem(@PathVariable("userId") Long userId, @RequestBody ChartItemDto item) {
+        log.debug("Received add item request for userId '{}' and inventory code '{}'", userId, item.getInventoryCode());
+
+        return chartStore.addItem(userId, item);
+    }
+
+    /**
+     * Sets the quantity of the item in the chart, removing it at 0.
+     */
+    @PutMapping("/items/{inventoryCode}")
+    @ResponseStatus(HttpStatus.OK)
+    public ChartDto setItem(@PathVariable("userId") Long userId,
+                            @PathVariable("inventoryCode") String inventoryCode,
+                            @RequestBody ChartItemDto item) {
+        log.debug("Received set item request for userId '{}' and inventory code '{}'", userId, inventoryCode);
+
+        item.setInventoryCode(inventoryCode);
+        return chartStore.setItem(userId, item);
+    }
+
+    @DeleteMapping("/items/{inventoryCode}")
+    @ResponseStatus(HttpStatus.OK)
+    public ChartDto removeItem(@PathVariable("userId") Long userId, @PathVariable("inventoryCode") String inventoryCode) {
+        log.debug("Received remove item request for userId '{}' and inventory code '{}'", userId, inventoryCode);
+
+        return chartStore.removeItem(userId, inventoryCode);
+    }
+
+    @GetMapping("/archive")
+    @ResponseStatus(HttpStatus.OK)
+    public List<ArchivedChartDto> findArchivedCharts(@PathVariable("userId") Long userId) {
+        log.debug("Received archived charts request for userId '{}'", userId);
+
+        return archiveService.findArchivedCharts(userId);
+    }
+
+    @ExceptionHandler({IllegalArgumentException.class, ArithmeticException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public void handleBadRequest(RuntimeException exception) {
+        log.info("Chart request rejected with message: {}", exception.getMessage());
+    }
+}
@@ -4,15 +4,19 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
-public class OrderDto {
-    private OrderEventStatusDto orderEventStatus;
-    private Long userId;
-    private List<OrderItemDto> orderItems;
-    private String paymentCode;
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedChartDto {
+
+    private Long chartId;
+    private List<ChartItemDto> chartItems;
     private BigDecimal totalPrice;
     private LocalDateTime insertDate;
     private LocalDateTime updateDate;
+    private LocalDateTime archiveDate;
 }
@@ -0,0 +1,18 @@
+package com.taltech.ecommerce.chartservice.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChartDto {
+
+    private Long userId;
+    private List<ChartItemDto> chartItems;
+    private BigDecimal totalPrice;
+}
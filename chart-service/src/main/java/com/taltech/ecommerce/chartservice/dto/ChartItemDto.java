@@ -1,15 +1,17 @@
 package com.taltech.ecommerce.chartservice.dto;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
-public class OrderItemDto {
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChartItemDto {
+
     private String inventoryCode;
     private Integer quantity;
     private BigDecimal price;
-    private LocalDateTime insertDate;
-    private LocalDateTime updateDate;
 }
@@ -1,8 +0,0 @@
-package com.taltech.ecommerce.chartservice.enumeration;
-
-public enum EventStatus {
-    SUCCESSFUL,
-    FAILED,
-    ROLLBACK,
-    ROLLBACK_FAILED
-}
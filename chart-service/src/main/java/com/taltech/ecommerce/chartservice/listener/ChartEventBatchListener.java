@@ -0,0 +1,58 @@
+package com.taltech.ecommerce.chartservice.listener;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import com.taltech.ecommerce.chartservice.service.ChartService;
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+import com.taltech.ecommerce.sagaevents.retry.TransientFailures;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@ConditionalOnProperty(name = "kafka.listener.batch.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ChartEventBatchListener {
+
+    private final ChartService service;
+    private final ObservationRegistry observationRegistry;
+
+    @KafkaListener(topics = "deleteChartTopic", batch = "true")
+    public void receiveDeleteChart(List<OrderEvent> orderEvents) {
+        Observation.createNotStarted("delete-chart-batch-received", this.observationRegistry)
+            .observe(() -> {
+                log.info("Delete chart batch of '{}' events received", orderEvents.size());
+                try {
+                    service.commitDeletes(orderEvents);
+                }
+                catch (Exception exception) {
+                    log.error("Delete chart batch failed, processing '{}' events one by one. Exception message: {}",
+                        orderEvents.size(), exception.getMessage());
+                    TransientFailures.processEach(orderEvents, service::commitDelete);
+                }
+            });
+    }
+
+    @KafkaListener(topics = "rollbackChartTopic", batch = "true")
+    public void receiveRollbackChart(List<OrderEvent> orderEvents) {
+        Observation.createNotStarted("rollback-chart-batch-received", this.observationRegistry)
+            .observe(() -> {
+                log.info("Rollback chart batch of '{}' events received", orderEvents.size());
+                try {
+                    service.rollbackDeletes(orderEvents);
+                }
+                catch (Exception exception) {
+                    log.error("Rollback chart batch failed, processing '{}' events one by one. Exception message: {}",
+                        orderEvents.size(), exception.getMessage());
+                    TransientFailures.processEach(orderEvents, service::rollbackDelete);
+                }
+            });
+    }
+}
@@ -12,7 +12,10 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table
+@Table(indexes = {
+    @Index(name = "chart_user_id_idx", columnList = "user_id"),
+    @Index(name = "chart_active_update_date_idx", columnList = "active, update_date")
+})
 @Getter
 @Setter
 @AllArgsConstructor
@@ -22,7 +25,8 @@ public class Chart {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     private Long userId;
-    @OneToMany(cascade = CascadeType.ALL)
+    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinTable(name = "chart_chart_items", indexes = @Index(name = "chart_chart_items_chart_id_idx", columnList = "chart_id"))
     private List<ChartItem> chartItems;
     private BigDecimal totalPrice;
     private boolean active;
@@ -0,0 +1,38 @@
+package com.taltech.ecommerce.chartservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import jakarta.persistence.*;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import com.taltech.ecommerce.chartservice.dto.ChartItemDto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * An inactive chart moved out of the chart tables, with its items kept as one jsonb value.
+ */
+@Entity
+@Table(indexes = @Index(name = "chart_archive_user_id_idx", columnList = "user_id"))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChartArchive {
+    @Id
+    private Long chartId;
+    private Long userId;
+    @JdbcTypeCode(SqlTypes.JSON)
+    private List<ChartItemDto> chartItems;
+    private BigDecimal totalPrice;
+    private LocalDateTime insertDate;
+    private LocalDateTime updateDate;
+    private LocalDateTime archiveDate;
+}
@@ -1,12 +1,11 @@
 package com.taltech.ecommerce.chartservice.publisher;
 
-import java.util.concurrent.CompletableFuture;
+import java.util.List;
 
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
-import com.taltech.ecommerce.chartservice.event.OrderEvent;
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+import com.taltech.ecommerce.sagaevents.outbox.OutboxWriter;
 
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
@@ -18,27 +17,39 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class ChartEventPublisher {
 
-    private final KafkaTemplate<String, OrderEvent> kafkaTemplate;
+    private final OutboxWriter outboxWriter;
     private final ObservationRegistry observationRegistry;
 
     public void publishSavePayment(OrderEvent orderEvent) {
-        publishEvent("savePaymentTopic", "save-payment-sent", orderEvent);
+        publishEvent("savePaymentTopic", "save-payment-outboxed", orderEvent, false);
     }
 
-    public void publishRollbackInventory(OrderEvent orderEvent) {
-        publishEvent("rollbackInventoryTopic", "rollback-inventory-sent", orderEvent);
+    public void publishRollbackInventory(OrderEvent orderEvent, boolean rollbackOnly) {
+        publishEvent("rollbackInventoryTopic", "rollback-inventory-outboxed", orderEvent, rollbackOnly);
     }
 
-    private void publishEvent(String topic, String observationName, OrderEvent orderEvent) {
-        log.info("Publishing chart event '{}' to '{}'", topic, orderEvent.getOrder().getOrderEventStatus().getId());
+    public void publishSavePayment(List<OrderEvent> orderEvents) {
+        publishEvents("savePaymentTopic", "save-payment-outboxed", orderEvents);
+    }
+
+    public void publishRollbackInventory(List<OrderEvent> orderEvents) {
+        publishEvents("rollbackInventoryTopic", "rollback-inventory-outboxed", orderEvents);
+    }
+
+    private void publishEvent(String topic, String observationName, OrderEvent orderEvent, boolean rollbackOnly) {
+        log.info("Publishing chart event '{}' to '{}'", orderEvent.getOrder().getOrderEventStatus().getId(), topic);
 
-        try {
-            Observation.createNotStarted(observationName, this.observationRegistry).observe(() -> {
-                CompletableFuture<SendResult<String, OrderEvent>> future = kafkaTemplate.send(topic, orderEvent);
-                return future.handle((result, throwable) -> CompletableFuture.completedFuture(result));
-            });
-        } catch (Exception exception) {
-            log.error("Exception occurred while sending message to kafka, exception message: {}", exception.getMessage());
+        Observation.createNotStarted(observationName, this.observationRegistry)
+            .observe(() -> outboxWriter.write(topic, orderEvent, rollbackOnly));
+    }
+
+    private void publishEvents(String topic, String observationName, List<OrderEvent> orderEvents) {
+        if (orderEvents.isEmpty()) {
+            return;
         }
+        log.info("Publishing '{}' chart events to '{}'", orderEvents.size(), topic);
+
+        Observation.createNotStarted(observationName, this.observationRegistry)
+            .observe(() -> outboxWriter.writeAll(topic, orderEvents));
     }
 }
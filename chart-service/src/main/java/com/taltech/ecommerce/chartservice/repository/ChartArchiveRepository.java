@@ -0,0 +1,29 @@
+package com.taltech.ecommerce.chartservice.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.taltech.ecommerce.chartservice.model.ChartArchive;
+
+public interface ChartArchiveRepository extends JpaRepository<ChartArchive, Long> {
+
+    List<ChartArchive> findByUserIdOrderByChartIdDesc(Long userId);
+
+    /**
+     * Copies the charts with their items folded into one jsonb array into the archive.
+     */
+    @Modifying
+    @Query(value = "insert into chart_archive (chart_id, user_id, chart_items, total_price, insert_date, update_date, archive_date) "
+        + "select c.id, c.user_id, coalesce(jsonb_agg(jsonb_build_object('inventoryCode', i.inventory_code, "
+        + "'quantity', i.quantity, 'price', i.price) order by i.id) filter (where i.id is not null), '[]'), "
+        + "c.total_price, c.insert_date, c.update_date, now() "
+        + "from chart c left join chart_chart_items ci on ci.chart_id = c.id left join chart_item i on i.id = ci.chart_items_id "
+        + "where c.id in (:chartIds) group by c.id "
+        + "on conflict (chart_id) do nothing", nativeQuery = true)
+    int archiveCharts(@Param("chartIds") Collection<Long> chartIds);
+}
@@ -1,12 +1,70 @@
 package com.taltech.ecommerce.chartservice.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.taltech.ecommerce.chartservice.model.Chart;
 
 public interface ChartRepository extends JpaRepository<Chart, Long> {
 
-    Optional<Chart> findByUserId(Long userId);
+    @EntityGraph(attributePaths = "chartItems")
+    Optional<Chart> findFirstByUserIdOrderByIdDesc(Long userId);
+
+    @EntityGraph(attributePaths = "chartItems")
+    List<Chart> findByUserIdIn(Collection<Long> userIds);
+
+    /**
+     * Locks the charts of the users in userId order, so batches sharing users never deadlock, and returns the
+     * users that have a chart.
+     */
+    @Query(value = "select user_id from chart where user_id in (:userIds) order by user_id for update", nativeQuery = true)
+    List<Long> lockUserIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Updates only the latest chart of each user, so a rollback never reactivates a chart of an earlier order.
+     */
+    @Modifying
+    @Query("update Chart c set c.active = :active, c.updateDate = :updateDate "
+        + "where c.id in (select max(l.id) from Chart l where l.userId in :userIds group by l.userId)")
+    int updateActive(@Param("userIds") Collection<Long> userIds,
+                     @Param("active") boolean active,
+                     @Param("updateDate") LocalDateTime updateDate);
+
+    @Modifying
+    @Query("update ChartItem ci set ci.active = :active, ci.updateDate = :updateDate "
+        + "where ci.id in (select i.id from Chart c join c.chartItems i "
+        + "where c.id in (select max(l.id) from Chart l where l.userId in :userIds group by l.userId))")
+    int updateItemsActive(@Param("userIds") Collection<Long> userIds,
+                          @Param("active") boolean active,
+                          @Param("updateDate") LocalDateTime updateDate);
+
+    /**
+     * Locks inactive charts not updated since the cutoff, skipping the ones a saga step or chart write holds.
+     */
+    @Query(value = "select id from chart where active = false and update_date < :cutoff order by id limit :batchSize "
+        + "for update skip locked", nativeQuery = true)
+    List<Long> lockArchivableIds(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+
+    @Query(value = "select chart_items_id from chart_chart_items where chart_id in (:chartIds)", nativeQuery = true)
+    List<Long> findItemIds(@Param("chartIds") Collection<Long> chartIds);
+
+    @Modifying
+    @Query(value = "delete from chart_chart_items where chart_id in (:chartIds)", nativeQuery = true)
+    int deleteItemLinks(@Param("chartIds") Collection<Long> chartIds);
+
+    @Modifying
+    @Query(value = "delete from chart_item where id in (:itemIds)", nativeQuery = true)
+    int deleteItems(@Param("itemIds") Collection<Long> itemIds);
+
+    @Modifying
+    @Query(value = "delete from chart where id in (:chartIds)", nativeQuery = true)
+    int deleteCharts(@Param("chartIds") Collection<Long> chartIds);
 }
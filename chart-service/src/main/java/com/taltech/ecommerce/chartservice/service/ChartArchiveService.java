@@ -0,0 +1,88 @@
+package com.taltech.ecommerce.chartservice.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.taltech.ecommerce.chartservice.dto.ArchivedChartDto;
+import com.taltech.ecommerce.chartservice.model.ChartArchive;
+import com.taltech.ecommerce.chartservice.repository.ChartArchiveRepository;
+import com.taltech.ecommerce.chartservice.repository.ChartRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves inactive charts older than {@code chart.archive.age} from the chart tables into chart_archive, one chunk
+ * of {@code chart.archive.batch-size} charts every {@code chart.archive.interval} milliseconds. A chunk skips the
+ * charts locked by saga steps or chart writes and is a short transaction of set-based statements, so a backlog is
+ * worked off at a bounded rate instead of competing with the saga.
+ */
+@Service
+@Slf4j
+public class ChartArchiveService {
+
+    private final ChartRepository chartRepository;
+    private final ChartArchiveRepository archiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration age;
+    private final int batchSize;
+
+    public ChartArchiveService(ChartRepository chartRepository,
+                               ChartArchiveRepository archiveRepository,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${chart.archive.age}") Duration age,
+                               @Value("${chart.archive.batch-size}") int batchSize) {
+        this.chartRepository = chartRepository;
+        this.archiveRepository = archiveRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.age = age;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${chart.archive.interval}")
+    public void archive() {
+        try {
+            Integer archivedCount = transactionTemplate.execute(status -> archiveChunk());
+            if (archivedCount != null && archivedCount > 0) {
+                log.info("Archived '{}' inactive charts", archivedCount);
+            }
+        }
+        catch (Exception exception) {
+            log.error("Archiving charts failed with exception message: {}", exception.getMessage());
+        }
+    }
+
+    public List<ArchivedChartDto> findArchivedCharts(Long userId) {
+        return archiveRepository.findByUserIdOrderByChartIdDesc(userId).stream()
+            .map(ChartArchiveService::toDto)
+            .toList();
+    }
+
+    private int archiveChunk() {
+        List<Long> chartIds = chartRepository.lockArchivableIds(LocalDateTime.now().minus(age), batchSize);
+        if (chartIds.isEmpty()) {
+            return 0;
+        }
+        archiveRepository.archiveCharts(chartIds);
+        List<Long> itemIds = chartRepository.findItemIds(chartIds);
+        chartRepository.deleteItemLinks(chartIds);
+        if (!itemIds.isEmpty()) {
+            chartRepository.deleteItems(itemIds);
+        }
+        return chartRepository.deleteCharts(chartIds);
+    }
+
+    private static ArchivedChartDto toDto(ChartArchive chartArchive) {
+        return new ArchivedChartDto(chartArchive.getChartId(),
+            chartArchive.getChartItems(),
+            chartArchive.getTotalPrice(),
+            chartArchive.getInsertDate(),
+            chartArchive.getUpdateDate(),
+            chartArchive.getArchiveDate());
+    }
+}
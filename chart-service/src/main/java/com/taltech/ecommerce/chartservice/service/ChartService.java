@@ -1,16 +1,22 @@
 package com.taltech.ecommerce.chartservice.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
-import com.taltech.ecommerce.chartservice.enumeration.EventStatus;
-import com.taltech.ecommerce.chartservice.event.OrderEvent;
 import com.taltech.ecommerce.chartservice.exception.ChartDeleteException;
-import com.taltech.ecommerce.chartservice.model.Chart;
 import com.taltech.ecommerce.chartservice.publisher.ChartEventPublisher;
 import com.taltech.ecommerce.chartservice.repository.ChartRepository;
+import com.taltech.ecommerce.sagaevents.enumeration.EventStatus;
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+import com.taltech.ecommerce.sagaevents.retry.TransientFailures;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -23,60 +29,111 @@ import lombok.extern.slf4j.Slf4j;
 public class ChartService {
 
     private final ChartRepository repository;
+    private final ChartStore chartStore;
     private final ChartEventPublisher eventPublisher;
 
     public void commitDelete(OrderEvent orderEvent) {
         try {
             updateChart("Commit", orderEvent.getOrder().getUserId());
-            orderEvent.getOrder().getOrderEventStatus().setChartStatus(EventStatus.SUCCESSFUL);
-            eventPublisher.publishSavePayment(orderEvent);
+            eventPublisher.publishSavePayment(orderEvent.withChartStatus(EventStatus.SUCCESSFUL));
         } catch (Exception exception) {
+            TransientFailures.rethrowIfTransient(exception);
             log.error("Deleting chart failed with exception message: {}", exception.getMessage());
-            orderEvent.getOrder().getOrderEventStatus().setChartStatus(EventStatus.FAILED);
-            eventPublisher.publishRollbackInventory(orderEvent);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            eventPublisher.publishRollbackInventory(orderEvent.withChartStatus(EventStatus.FAILED), true);
         }
     }
 
     public void rollbackDelete(OrderEvent orderEvent) {
         try {
             updateChart("Rollback", orderEvent.getOrder().getUserId());
-            orderEvent.getOrder().getOrderEventStatus().setChartStatus(EventStatus.ROLLBACK);
-            eventPublisher.publishRollbackInventory(orderEvent);
+            eventPublisher.publishRollbackInventory(orderEvent.withChartStatus(EventStatus.ROLLBACK), false);
         } catch (Exception exception) {
+            TransientFailures.rethrowIfTransient(exception);
             log.error("Rollbacking chart failed with exception message: {}", exception.getMessage());
-            orderEvent.getOrder().getOrderEventStatus().setChartStatus(EventStatus.ROLLBACK_FAILED);
-            eventPublisher.publishRollbackInventory(orderEvent);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            eventPublisher.publishRollbackInventory(orderEvent.withChartStatus(EventStatus.ROLLBACK_FAILED), true);
         }
     }
 
-    private void updateChart(String action, Long userId) {
-        log.info("{} - Checking chart by userId '{}'", action, userId);
-        Chart chart = repository.findByUserId(userId)
-            .orElseThrow(() -> new EntityNotFoundException(String.format("%s - Chart with userId '%s' not found",
-                action, userId)));
+    public void commitDeletes(List<OrderEvent> orderEvents) {
+        Set<Long> foundUserIds = updateCharts("Commit", orderEvents, false);
+        List<OrderEvent> committedEvents = new ArrayList<>();
+        List<OrderEvent> failedEvents = new ArrayList<>();
+
+        orderEvents.forEach(orderEvent -> {
+            if (!foundUserIds.contains(orderEvent.getOrder().getUserId())) {
+                log.error("Commit - Chart with userId '{}' not found for event '{}'",
+                    orderEvent.getOrder().getUserId(), orderEvent.getOrder().getOrderEventStatus().getId());
+                failedEvents.add(orderEvent.withChartStatus(EventStatus.FAILED));
+            }
+            else {
+                committedEvents.add(orderEvent.withChartStatus(EventStatus.SUCCESSFUL));
+            }
+        });
+
+        eventPublisher.publishSavePayment(committedEvents);
+        eventPublisher.publishRollbackInventory(failedEvents);
+    }
+
+    public void rollbackDeletes(List<OrderEvent> orderEvents) {
+        Set<Long> foundUserIds = updateCharts("Rollback", orderEvents, true);
+        List<OrderEvent> rollbackEvents = new ArrayList<>();
 
-        log.info("{} - Updating chart by id '{}'", action, chart.getId());
+        orderEvents.forEach(orderEvent -> {
+            if (!foundUserIds.contains(orderEvent.getOrder().getUserId())) {
+                log.error("Rollback - Chart with userId '{}' not found for event '{}'",
+                    orderEvent.getOrder().getUserId(), orderEvent.getOrder().getOrderEventStatus().getId());
+                rollbackEvents.add(orderEvent.withChartStatus(EventStatus.ROLLBACK_FAILED));
+            }
+            else {
+                rollbackEvents.add(orderEvent.withChartStatus(EventStatus.ROLLBACK));
+            }
+        });
+
+        eventPublisher.publishRollbackInventory(rollbackEvents);
+    }
+
+    /**
+     * Locks the charts of the batch in userId order and updates them and their items with one statement each,
+     * returning the users that have a chart.
+     */
+    private Set<Long> updateCharts(String action, List<OrderEvent> orderEvents, boolean active) {
+        Set<Long> userIds = orderEvents.stream()
+            .map(orderEvent -> orderEvent.getOrder().getUserId())
+            .collect(Collectors.toSet());
+        log.info("{} - Updating charts for '{}' users of '{}' events", action, userIds.size(), orderEvents.size());
+        chartStore.detach(userIds);
+        Set<Long> foundUserIds = new HashSet<>(repository.lockUserIds(userIds));
+        if (!foundUserIds.isEmpty()) {
+            LocalDateTime updateDate = LocalDateTime.now();
+            repository.updateActive(foundUserIds, active, updateDate);
+            repository.updateItemsActive(foundUserIds, active, updateDate);
+        }
+        return foundUserIds;
+    }
+
+    private void updateChart(String action, Long userId) {
+        log.info("{} - Updating chart by userId '{}'", action, userId);
+        boolean active = action.equals("Rollback");
+        LocalDateTime updateDate = LocalDateTime.now();
+        int updatedCount;
         try {
-            setChartActive(chart, action.equals("Rollback"));
-            setChartUpdateDate(chart);
-            repository.saveAndFlush(chart);
+            chartStore.detach(List.of(userId));
+            updatedCount = repository.updateActive(List.of(userId), active, updateDate);
+            if (updatedCount > 0) {
+                repository.updateItemsActive(List.of(userId), active, updateDate);
+            }
         }
         catch (Exception exception) {
-            throw new ChartDeleteException(String.format("%s - Exception happened while updating the chart with id '%s' and userId '%s'. Exception message: '%s'",
+            TransientFailures.rethrowIfTransient(exception);
+            throw new ChartDeleteException(String.format("%s - Exception happened while updating the chart with userId '%s'. Exception message: '%s'",
                 action,
-                chart.getId(),
-                chart.getUserId(),
+                userId,
                 exception.getMessage()));
         }
-    }
-
-    private static void setChartActive(Chart chart, boolean active) {
-        chart.setActive(active);
-        chart.getChartItems().forEach(chartItem -> chartItem.setActive(active));
-    }
-
-    private static void setChartUpdateDate(Chart chart) {
-        chart.setUpdateDate(LocalDateTime.now());
-        chart.getChartItems().forEach(chartItem -> chartItem.setUpdateDate(LocalDateTime.now()));
+        if (updatedCount == 0) {
+            throw new EntityNotFoundException(String.format("%s - Chart with userId '%s' not found", action, userId));
+        }
     }
 }
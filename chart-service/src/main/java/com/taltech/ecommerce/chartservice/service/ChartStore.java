@@ -0,0 +1,222 @@
+package com.taltech.ecommerce.chartservice.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.taltech.ecommerce.chartservice.dto.ChartDto;
+import com.taltech.ecommerce.chartservice.dto.ChartItemDto;
+import com.taltech.ecommerce.chartservice.model.Chart;
+import com.taltech.ecommerce.chartservice.model.ChartItem;
+import com.taltech.ecommerce.chartservice.repository.ChartRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serves chart edits from memory. The chart of a user is loaded on first use, edits only mark it dirty, and every
+ * {@code chart.store.write-behind.interval} milliseconds the dirty charts are written in batches, so any number of
+ * edits between two writes costs one write. Charts not used for {@code chart.store.idle-timeout} are dropped.
+ * <p>
+ * Saga steps {@link #detach(Collection) detach} the charts of their users first, writing their pending edits in the
+ * saga transaction, and edits of those users wait until the transaction ends and then load the charts again.
+ */
+@Component
+@Slf4j
+public class ChartStore {
+
+    private final ChartRepository repository;
+    private final ChartWriter chartWriter;
+    private final int batchSize;
+    private final Duration idleTimeout;
+    private final Map<Long, OpenChart> charts = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyUserIds = ConcurrentHashMap.newKeySet();
+    // Keeps a write-behind batch and a detaching saga step from writing the same chart out of order
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public ChartStore(ChartRepository repository,
+                      ChartWriter chartWriter,
+                      @Value("${chart.store.write-behind.batch-size}") int batchSize,
+                      @Value("${chart.store.idle-timeout}") Duration idleTimeout) {
+        this.repository = repository;
+        this.chartWriter = chartWriter;
+        this.batchSize = batchSize;
+        this.idleTimeout = idleTimeout;
+    }
+
+    public ChartDto find(Long userId) {
+        while (true) {
+            ChartDto chart = openChart(userId).view();
+            if (chart != null) {
+                return chart;
+            }
+        }
+    }
+
+    public ChartDto addItem(Long userId, ChartItemDto item) {
+        if (item.getQuantity() == null || item.getQuantity() <= 0) {
+            throw new IllegalArgumentException(String.format("Added quantity of inventory code '%s' must be positive", item.getInventoryCode()));
+        }
+        return update(userId, item.getInventoryCode(), quantity -> Math.addExact(quantity, item.getQuantity()), item.getPrice());
+    }
+
+    public ChartDto setItem(Long userId, ChartItemDto item) {
+        if (item.getQuantity() == null) {
+            throw new IllegalArgumentException(String.format("Quantity of inventory code '%s' is missing", item.getInventoryCode()));
+        }
+        return update(userId, item.getInventoryCode(), quantity -> item.getQuantity(), item.getPrice());
+    }
+
+    public ChartDto removeItem(Long userId, String inventoryCode) {
+        return update(userId, inventoryCode, quantity -> 0, null);
+    }
+
+    /**
+     * Writes the pending edits of the users in the current transaction and keeps their charts from being edited
+     * until it ends.
+     */
+    public void detach(Collection<Long> userIds) {
+        List<OpenChart> detachedCharts = new ArrayList<>();
+        List<OpenChart> placeholders = new ArrayList<>();
+        List<ChartDto> changes = new ArrayList<>();
+        writeLock.lock();
+        try {
+            userIds.forEach(userId -> {
+                // A chart not in memory gets a detached placeholder, so no edit loads it before the saga step ends
+                OpenChart placeholder = new OpenChart(userId, List.of());
+                placeholder.detach();
+                OpenChart chart = charts.putIfAbsent(userId, placeholder);
+                if (chart == null) {
+                    placeholders.add(placeholder);
+                    return;
+                }
+                ChartDto changedChart = chart.detach();
+                if (changedChart != null) {
+                    changes.add(changedChart);
+                }
+                detachedCharts.add(chart);
+            });
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    placeholders.forEach(ChartStore.this::close);
+                    if (status == STATUS_COMMITTED) {
+                        detachedCharts.forEach(ChartStore.this::close);
+                        return;
+                    }
+                    // The saga step changed nothing, so the charts in memory and their pending edits are still valid
+                    Set<Long> changedUserIds = changes.stream().map(ChartDto::getUserId).collect(Collectors.toSet());
+                    detachedCharts.forEach(chart -> {
+                        chart.reopen(changedUserIds.contains(chart.getUserId()));
+                        if (changedUserIds.contains(chart.getUserId())) {
+                            dirtyUserIds.add(chart.getUserId());
+                        }
+                    });
+                }
+            });
+            chartWriter.write(changes);
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${chart.store.write-behind.interval}")
+    public void writeBehind() {
+        List<Long> batch = new ArrayList<>();
+        Iterator<Long> userIds = dirtyUserIds.iterator();
+        while (userIds.hasNext()) {
+            batch.add(userIds.next());
+            userIds.remove();
+            if (batch.size() >= batchSize) {
+                write(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        write(batch);
+
+        long idleSince = System.nanoTime() - idleTimeout.toNanos();
+        charts.values().removeIf(chart -> chart.closeIfIdle(idleSince));
+    }
+
+    /**
+     * Takes the changes under the write lock too, so a snapshot taken before a saga step detached the chart is never
+     * written after the step.
+     */
+    private void write(List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        List<ChartDto> changes = new ArrayList<>();
+        writeLock.lock();
+        try {
+            userIds.forEach(userId -> {
+                OpenChart chart = charts.get(userId);
+                ChartDto changedChart = chart == null ? null : chart.takeChanges();
+                if (changedChart != null) {
+                    changes.add(changedChart);
+                }
+            });
+            chartWriter.write(changes);
+        }
+        catch (Exception exception) {
+            log.error("Writing '{}' charts failed with exception message: {}", changes.size(), exception.getMessage());
+            changes.forEach(changedChart -> {
+                OpenChart chart = charts.get(changedChart.getUserId());
+                if (chart != null) {
+                    chart.restoreChanges();
+                    dirtyUserIds.add(changedChart.getUserId());
+                }
+            });
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void close(OpenChart chart) {
+        charts.remove(chart.getUserId(), chart);
+        chart.close();
+    }
+
+    private ChartDto update(Long userId, String inventoryCode, IntUnaryOperator quantity, BigDecimal price) {
+        while (true) {
+            ChartDto chart = openChart(userId).update(inventoryCode, quantity, price);
+            if (chart != null) {
+                dirtyUserIds.add(userId);
+                return chart;
+            }
+        }
+    }
+
+    private OpenChart openChart(Long userId) {
+        OpenChart chart = charts.get(userId);
+        if (chart != null) {
+            return chart;
+        }
+        List<ChartItemDto> activeItems = repository.findFirstByUserIdOrderByIdDesc(userId)
+            .map(Chart::getChartItems)
+            .orElse(List.of())
+            .stream()
+            .filter(ChartItem::isActive)
+            .map(chartItem -> new ChartItemDto(chartItem.getInventoryCode(), chartItem.getQuantity(), chartItem.getPrice()))
+            .toList();
+        OpenChart loadedChart = new OpenChart(userId, activeItems);
+        OpenChart existingChart = charts.putIfAbsent(userId, loadedChart);
+        return existingChart != null ? existingChart : loadedChart;
+    }
+}
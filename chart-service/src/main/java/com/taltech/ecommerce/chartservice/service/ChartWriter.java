@@ -0,0 +1,90 @@
+package com.taltech.ecommerce.chartservice.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.taltech.ecommerce.chartservice.dto.ChartDto;
+import com.taltech.ecommerce.chartservice.dto.ChartItemDto;
+import com.taltech.ecommerce.chartservice.model.Chart;
+import com.taltech.ecommerce.chartservice.model.ChartItem;
+import com.taltech.ecommerce.chartservice.repository.ChartRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes the charts edited through {@link ChartStore}, locking them in userId order like the saga steps do. Only
+ * the items whose quantity or price changed are updated, removed items are deleted and new ones inserted. A user
+ * whose latest chart is inactive gets a new chart.
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional
+@Slf4j
+public class ChartWriter {
+
+    private final ChartRepository repository;
+
+    public void write(List<ChartDto> charts) {
+        if (charts.isEmpty()) {
+            return;
+        }
+        Map<Long, ChartDto> chartsByUserId = charts.stream()
+            .collect(Collectors.toMap(ChartDto::getUserId, Function.identity(), (first, second) -> second, TreeMap::new));
+        repository.lockUserIds(chartsByUserId.keySet());
+        Map<Long, Chart> foundCharts = repository.findByUserIdIn(chartsByUserId.keySet()).stream()
+            .collect(Collectors.toMap(Chart::getUserId, Function.identity(),
+                (first, second) -> first.getId() > second.getId() ? first : second));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Chart> newCharts = new ArrayList<>();
+        chartsByUserId.forEach((userId, chartDto) -> {
+            Chart chart = foundCharts.get(userId);
+            // A checked out chart stays as the order left it, edits after the checkout start a new chart
+            if (chart == null || !chart.isActive()) {
+                chart = new Chart(null, userId, new ArrayList<>(), BigDecimal.ZERO, true, now, now);
+                newCharts.add(chart);
+            }
+            applyItems(chart, chartDto, now);
+        });
+        repository.saveAll(newCharts);
+        log.debug("Wrote '{}' charts, '{}' of them new", chartsByUserId.size(), newCharts.size());
+    }
+
+    private static void applyItems(Chart chart, ChartDto chartDto, LocalDateTime now) {
+        Map<String, ChartItemDto> items = chartDto.getChartItems().stream()
+            .collect(Collectors.toMap(ChartItemDto::getInventoryCode, Function.identity()));
+        Iterator<ChartItem> chartItems = chart.getChartItems().iterator();
+        while (chartItems.hasNext()) {
+            ChartItem chartItem = chartItems.next();
+            if (!chartItem.isActive()) {
+                continue;
+            }
+            ChartItemDto item = items.remove(chartItem.getInventoryCode());
+            if (item == null) {
+                chartItems.remove();
+            }
+            else if (!item.getQuantity().equals(chartItem.getQuantity()) || item.getPrice().compareTo(chartItem.getPrice()) != 0) {
+                chartItem.setQuantity(item.getQuantity());
+                chartItem.setPrice(item.getPrice());
+                chartItem.setUpdateDate(now);
+            }
+        }
+        items.values().forEach(item -> chart.getChartItems()
+            .add(new ChartItem(null, item.getInventoryCode(), item.getQuantity(), item.getPrice(), true, now, now)));
+
+        chart.setTotalPrice(chartDto.getTotalPrice());
+        chart.setActive(true);
+        chart.setUpdateDate(now);
+    }
+}
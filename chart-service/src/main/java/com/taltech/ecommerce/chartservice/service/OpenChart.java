@@ -0,0 +1,145 @@
+package com.taltech.ecommerce.chartservice.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntUnaryOperator;
+
+import com.taltech.ecommerce.chartservice.dto.ChartDto;
+import com.taltech.ecommerce.chartservice.dto.ChartItemDto;
+
+/**
+ * The active items of one user's chart, kept by {@link ChartStore}. The total price is changed by the difference
+ * of every edited item instead of being summed again, and {@code dirty} marks edits not written yet.
+ * <p>
+ * A saga step detaches the chart until its transaction ends. Edits wait meanwhile and then go on with the reopened
+ * chart, or load the chart again when the step committed and closed it.
+ */
+final class OpenChart {
+
+    private enum State { OPEN, DETACHED, CLOSED }
+
+    private final Long userId;
+    private final Map<String, ChartItemDto> items = new LinkedHashMap<>();
+    private BigDecimal totalPrice = BigDecimal.ZERO;
+    private State state = State.OPEN;
+    private boolean dirty;
+    private volatile long lastAccessTime = System.nanoTime();
+
+    OpenChart(Long userId, List<ChartItemDto> activeItems) {
+        this.userId = userId;
+        activeItems.forEach(item -> change(item.getInventoryCode(), quantity -> quantity + item.getQuantity(), item.getPrice()));
+    }
+
+    Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Sets the quantity of the item, removing it at 0, or returns null when the chart was closed meanwhile.
+     */
+    synchronized ChartDto update(String inventoryCode, IntUnaryOperator quantity, BigDecimal price) {
+        if (!awaitOpen()) {
+            return null;
+        }
+        change(inventoryCode, quantity, price);
+        dirty = true;
+        return toDto();
+    }
+
+    synchronized ChartDto view() {
+        return awaitOpen() ? toDto() : null;
+    }
+
+    /**
+     * Returns the chart for writing if it has edits not written yet.
+     */
+    synchronized ChartDto takeChanges() {
+        if (state != State.OPEN || !dirty) {
+            return null;
+        }
+        dirty = false;
+        return toDto();
+    }
+
+    synchronized void restoreChanges() {
+        if (state == State.OPEN) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Stops edits until {@link #close()} and returns the edits not written yet, if any.
+     */
+    synchronized ChartDto detach() {
+        boolean hadChanges = state == State.OPEN && dirty;
+        state = State.DETACHED;
+        dirty = false;
+        return hadChanges ? toDto() : null;
+    }
+
+    synchronized void reopen(boolean restoreChanges) {
+        if (state == State.DETACHED) {
+            state = State.OPEN;
+            dirty = restoreChanges;
+            notifyAll();
+        }
+    }
+
+    synchronized boolean closeIfIdle(long idleSince) {
+        if (state != State.OPEN || dirty || lastAccessTime - idleSince > 0) {
+            return false;
+        }
+        state = State.CLOSED;
+        return true;
+    }
+
+    synchronized void close() {
+        state = State.CLOSED;
+        notifyAll();
+    }
+
+    private boolean awaitOpen() {
+        lastAccessTime = System.nanoTime();
+        while (state == State.DETACHED) {
+            try {
+                wait();
+            }
+            catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(String.format("Interrupted while the chart of userId '%s' is detached", userId));
+            }
+        }
+        return state == State.OPEN;
+    }
+
+    private void change(String inventoryCode, IntUnaryOperator quantity, BigDecimal price) {
+        ChartItemDto item = items.get(inventoryCode);
+        int oldQuantity = item == null ? 0 : item.getQuantity();
+        int newQuantity = quantity.applyAsInt(oldQuantity);
+        if (newQuantity < 0) {
+            throw new IllegalArgumentException(String.format("Quantity '%s' of inventory code '%s' is negative", newQuantity, inventoryCode));
+        }
+        BigDecimal newPrice = price != null ? price : item != null ? item.getPrice() : null;
+        if (newQuantity > 0 && (newPrice == null || newPrice.signum() < 0)) {
+            throw new IllegalArgumentException(String.format("Price of inventory code '%s' is missing or negative", inventoryCode));
+        }
+
+        if (item != null) {
+            totalPrice = totalPrice.subtract(item.getPrice().multiply(BigDecimal.valueOf(oldQuantity)));
+        }
+        if (newQuantity == 0) {
+            items.remove(inventoryCode);
+        }
+        else {
+            items.put(inventoryCode, new ChartItemDto(inventoryCode, newQuantity, newPrice));
+            totalPrice = totalPrice.add(newPrice.multiply(BigDecimal.valueOf(newQuantity)));
+        }
+    }
+
+    private ChartDto toDto() {
+        return new ChartDto(userId, new ArrayList<>(items.values()), totalPrice);
+    }
+}
@@ -0,0 +1,37 @@
+package com.taltech.ecommerce.inventoryservice.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+import com.taltech.ecommerce.sagaevents.retry.SagaRetryTopics;
+
+@Configuration
+@ConditionalOnProperty(name = "kafka.listener.batch.enabled", havingValue = "false", matchIfMissing = true)
+public class KafkaRetryConfig {
+
+    /**
+     * order-service consumes this topic too, so its retry and dead letter topics get their own suffixes instead of
+     * the shared ones of the saga retry configuration, which excludes the topic.
+     */
+    @Bean
+    public RetryTopicConfiguration orderCompletedRetryTopicConfiguration(
+            KafkaTemplate<String, OrderEvent> kafkaTemplate,
+            @Value("${saga.retry.attempts}") int attempts,
+            @Value("${saga.retry.initial-interval}") Duration initialInterval,
+            @Value("${saga.retry.multiplier}") double multiplier,
+            @Value("${saga.retry.max-interval}") Duration maxInterval,
+            @Value("${kafka.topic.partitions}") int partitions) {
+        return SagaRetryTopics.newBuilder(attempts, initialInterval, multiplier, maxInterval, partitions)
+            .includeTopic("orderCompletedTopic")
+            .retryTopicSuffix("-inventory-retry")
+            .dltSuffix("-inventory-dlt")
+            .create(kafkaTemplate);
+    }
+}
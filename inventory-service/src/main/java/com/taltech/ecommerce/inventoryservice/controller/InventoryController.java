@@ -0,0 +1,89 @@
+package com.taltech.ecommerce.inventoryservice.controller;
+
+import java.io.InputStream;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.taltech.ecommerce.inventoryservice.dto.InventoryImportDto;
+import com.taltech.ecommerce.inventoryservice.dto.InventoryStockDto;
+import com.taltech.ecommerce.inventoryservice.enumeration.CatalogFormat;
+import com.taltech.ecommerce.inventoryservice.exception.InventoryImportException;
+import com.taltech.ecommerce.inventoryservice.service.InventoryImportService;
+import com.taltech.ecommerce.inventoryservice.service.InventoryService;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/inventory")
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryController {
+
+    private final InventoryService service;
+    private final InventoryImportService importService;
+
+    @GetMapping("/{code}/stock")
+    @ResponseStatus(HttpStatus.OK)
+    public InventoryStockDto findStock(@PathVariable("code") String code) {
+        log.info("Received stock request for inventory code '{}'", code);
+
+        return service.findStock(code);
+    }
+
+    /**
+     * Admin operation: spreads the stock of a hot code over {@code count} shards, or unshards it with 0.
+     */
+    @PutMapping("/{code}/shards")
+    @ResponseStatus(HttpStatus.OK)
+    public InventoryStockDto rebalanceShards(@PathVariable("code") String code, @RequestParam("count") int count) {
+        log.info("Received shard rebalance request for inventory code '{}' with '{}' shards", code, count);
+
+        return service.rebalanceShards(code, count);
+    }
+
+    /**
+     * Admin operation: streams a CSV catalog from the request body into the inventory table.
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @ResponseStatus(HttpStatus.OK)
+    public InventoryImportDto importCsv(InputStream body) {
+        log.info("Received CSV catalog import request");
+
+        return importService.importCatalog(body, CatalogFormat.CSV);
+    }
+
+    /**
+     * Admin operation: streams an NDJSON catalog from the request body into the inventory table.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public InventoryImportDto importNdjson(InputStream body) {
+        log.info("Received NDJSON catalog import request");
+
+        return importService.importCatalog(body, CatalogFormat.NDJSON);
+    }
+
+    @ExceptionHandler(EntityNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public void handleNotFound(EntityNotFoundException exception) {
+        log.info("Inventory request rejected with message: {}", exception.getMessage());
+    }
+
+    @ExceptionHandler({IllegalArgumentException.class, InventoryImportException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public void handleBadRequest(RuntimeException exception) {
+        log.info("Inventory request rejected with message: {}", exception.getMessage());
+    }
+}
@@ -0,0 +1,19 @@
+package com.taltech.ecommerce.inventoryservice.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogItemDto {
+
+    private String code;
+    private String name;
+    private String description;
+    private Integer quantity;
+    private BigDecimal price;
+}
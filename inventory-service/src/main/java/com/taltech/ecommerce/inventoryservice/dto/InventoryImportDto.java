@@ -0,0 +1,14 @@
+package com.taltech.ecommerce.inventoryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryImportDto {
+
+    private Long stagedCount;
+    private Integer mergedCount;
+}
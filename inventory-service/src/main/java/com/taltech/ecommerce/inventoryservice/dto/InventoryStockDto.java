@@ -0,0 +1,18 @@
+package com.taltech.ecommerce.inventoryservice.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryStockDto {
+
+    private String code;
+    private Long quantity;
+    private Integer unshardedQuantity;
+    private List<Integer> shardQuantities;
+}
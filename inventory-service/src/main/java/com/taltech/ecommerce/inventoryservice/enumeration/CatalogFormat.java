@@ -0,0 +1,14 @@
+package com.taltech.ecommerce.inventoryservice.enumeration;
+
+public enum CatalogFormat {
+    CSV,
+    NDJSON;
+
+    public static CatalogFormat fromFileName(String fileName) {
+        String lowerCaseName = fileName.toLowerCase();
+        if (lowerCaseName.endsWith(".ndjson") || lowerCaseName.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        return CSV;
+    }
+}
@@ -1,8 +0,0 @@
-package com.taltech.ecommerce.inventoryservice.enumeration;
-
-public enum EventStatus {
-    SUCCESSFUL,
-    FAILED,
-    ROLLBACK,
-    ROLLBACK_FAILED
-}
@@ -0,0 +1,21 @@
+package com.taltech.ecommerce.inventoryservice.enumeration;
+
+public enum MovementType {
+    COMMIT("Commit"),
+    ROLLBACK("Rollback"),
+    EXPIRE("Expire"),
+    RECLAIM("Reclaim");
+
+    private final String action;
+
+    MovementType(String action) {
+        this.action = action;
+    }
+
+    /**
+     * Name of the action in log and exception messages.
+     */
+    public String getAction() {
+        return action;
+    }
+}
@@ -0,0 +1,8 @@
+package com.taltech.ecommerce.inventoryservice.exception;
+
+public class InventoryImportException extends RuntimeException {
+
+    public InventoryImportException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,74 @@
+package com.taltech.ecommerce.inventoryservice.listener;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import com.taltech.ecommerce.inventoryservice.service.InventoryService;
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+import com.taltech.ecommerce.sagaevents.retry.TransientFailures;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@ConditionalOnProperty(name = "kafka.listener.batch.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryEventBatchListener {
+
+    private final InventoryService service;
+    private final ObservationRegistry observationRegistry;
+
+    @KafkaListener(topics = "updateInventoryTopic", batch = "true")
+    public void receiveUpdateInventory(List<OrderEvent> orderEvents) {
+        Observation.createNotStarted("update-inventory-batch-received", this.observationRegistry)
+            .observe(() -> {
+                log.info("Update inventory batch of '{}' events received", orderEvents.size());
+                try {
+                    service.commitUpdates(orderEvents);
+                }
+                catch (Exception exception) {
+                    log.error("Update inventory batch failed, processing '{}' events one by one. Exception message: {}",
+                        orderEvents.size(), exception.getMessage());
+                    TransientFailures.processEach(orderEvents, service::commitUpdate);
+                }
+            });
+    }
+
+    @KafkaListener(topics = "rollbackInventoryTopic", batch = "true")
+    public void receiveRollbackInventory(List<OrderEvent> orderEvents) {
+        Observation.createNotStarted("rollback-inventory-batch-received", this.observationRegistry)
+            .observe(() -> {
+                log.info("Rollback inventory batch of '{}' events received", orderEvents.size());
+                try {
+                    service.rollbackUpdates(orderEvents);
+                }
+                catch (Exception exception) {
+                    log.error("Rollback inventory batch failed, processing '{}' events one by one. Exception message: {}",
+                        orderEvents.size(), exception.getMessage());
+                    TransientFailures.processEach(orderEvents, service::rollbackUpdate);
+                }
+            });
+    }
+
+    @KafkaListener(topics = "orderCompletedTopic", batch = "true")
+    public void receiveOrderCompleted(List<OrderEvent> orderEvents) {
+        Observation.createNotStarted("confirm-hold-batch-received", this.observationRegistry)
+            .observe(() -> {
+                log.info("Order completed batch of '{}' events received", orderEvents.size());
+                try {
+                    service.confirmHolds(orderEvents);
+                }
+                catch (Exception exception) {
+                    log.error("Confirm hold batch failed, processing '{}' events one by one. Exception message: {}",
+                        orderEvents.size(), exception.getMessage());
+                    TransientFailures.processEach(orderEvents, service::confirmHold);
+                }
+            });
+    }
+}
@@ -1,10 +1,11 @@
 package com.taltech.ecommerce.inventoryservice.listener;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
-import com.taltech.ecommerce.inventoryservice.event.OrderEvent;
 import com.taltech.ecommerce.inventoryservice.service.InventoryService;
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
 
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
@@ -12,6 +13,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Component
+@ConditionalOnProperty(name = "kafka.listener.batch.enabled", havingValue = "false", matchIfMissing = true)
 @RequiredArgsConstructor
 @Slf4j
 public class InventoryEventListener {
@@ -36,4 +38,13 @@ public class InventoryEventListener {
                 service.rollbackUpdate(orderEvent);
             });
     }
+
+    @KafkaListener(topics = "orderCompletedTopic")
+    public void receiveOrderCompleted(OrderEvent orderEvent) {
+        Observation.createNotStarted("confirm-hold-received", this.observationRegistry)
+            .observe(() -> {
+                log.info("Order completed event '{}' received", orderEvent.getOrder().getOrderEventStatus().getId());
+                service.confirmHold(orderEvent);
+            });
+    }
 }
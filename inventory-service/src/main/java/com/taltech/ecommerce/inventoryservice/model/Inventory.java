@@ -8,6 +8,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -15,7 +16,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table
+@Table(uniqueConstraints = @UniqueConstraint(name = "inventory_code_uk", columnNames = "code"))
 @Getter
 @Setter
 @AllArgsConstructor
@@ -31,6 +32,7 @@ public class Inventory {
     private String description;
     private Integer quantity;
     private BigDecimal price;
+    private Long ledgerPosition;
     private LocalDateTime insertDate;
     private LocalDateTime updateDate;
 }
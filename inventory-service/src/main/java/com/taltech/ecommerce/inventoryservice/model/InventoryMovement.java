@@ -0,0 +1,43 @@
+package com.taltech.ecommerce.inventoryservice.model;
+
+import java.time.LocalDateTime;
+
+import com.taltech.ecommerce.inventoryservice.enumeration.MovementType;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(
+    uniqueConstraints = @UniqueConstraint(name = "inventory_movement_event_code_type_uk",
+        columnNames = {"order_event_id", "inventory_code", "movement_type"}),
+    indexes = @Index(name = "inventory_movement_code_id_idx", columnList = "inventory_code, id"))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class InventoryMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String orderEventId;
+    private String inventoryCode;
+    private Integer delta;
+    @Enumerated(EnumType.ORDINAL)
+    private MovementType movementType;
+    private LocalDateTime insertDate;
+}
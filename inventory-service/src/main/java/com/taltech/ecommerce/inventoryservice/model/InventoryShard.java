@@ -0,0 +1,35 @@
+package com.taltech.ecommerce.inventoryservice.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "inventory_shard_code_index_uk", columnNames = {"inventory_code", "shard_index"}))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class InventoryShard {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_shard_seq")
+    @SequenceGenerator(name = "inventory_shard_seq", sequenceName = "inventory_shard_seq", allocationSize = 50)
+    private Long id;
+    private String inventoryCode;
+    private Integer shardIndex;
+    private Integer quantity;
+    private LocalDateTime updateDate;
+}
@@ -0,0 +1,45 @@
+package com.taltech.ecommerce.inventoryservice.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(indexes = {
+    @Index(name = "stock_hold_order_event_id_idx", columnList = "order_event_id"),
+    @Index(name = "stock_hold_expire_date_idx", columnList = "expire_date"),
+    @Index(name = "stock_hold_release_date_idx", columnList = "release_date")
+})
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class StockHold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_hold_seq")
+    @SequenceGenerator(name = "stock_hold_seq", sequenceName = "stock_hold_seq", allocationSize = 50)
+    private Long id;
+    private String orderEventId;
+    private String inventoryCode;
+    private Integer quantity;
+    private LocalDateTime expireDate;
+    /**
+     * Set when the {@link com.taltech.ecommerce.inventoryservice.service.StockHoldReaper} gave the stock back. The
+     * hold is kept, so a payment completing afterwards can still take the stock again.
+     */
+    private LocalDateTime releaseDate;
+    private LocalDateTime insertDate;
+}
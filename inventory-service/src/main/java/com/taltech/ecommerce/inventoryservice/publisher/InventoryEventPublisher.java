@@ -1,12 +1,11 @@
 package com.taltech.ecommerce.inventoryservice.publisher;
 
-import java.util.concurrent.CompletableFuture;
+import java.util.List;
 
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
-import com.taltech.ecommerce.inventoryservice.event.OrderEvent;
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+import com.taltech.ecommerce.sagaevents.outbox.OutboxWriter;
 
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
@@ -18,28 +17,43 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class InventoryEventPublisher {
 
-    private final KafkaTemplate<String, OrderEvent> kafkaTemplate;
+    private final OutboxWriter outboxWriter;
     private final ObservationRegistry observationRegistry;
 
     public void publishDeleteChart(OrderEvent orderEvent) {
-        publishEvent("deleteChartTopic", "delete-chart-sent", orderEvent);
+        publishEvent("deleteChartTopic", "delete-chart-outboxed", orderEvent, false);
     }
 
-    public void publishOrderFailed(OrderEvent orderEvent) {
-        publishEvent("orderFailedTopic", "order-failed-sent", orderEvent);
+    public void publishOrderFailed(OrderEvent orderEvent, boolean rollbackOnly) {
+        publishEvent("orderFailedTopic", "order-failed-outboxed", orderEvent.withoutItems(), rollbackOnly);
     }
 
-    private void publishEvent(String topic, String observationName, OrderEvent orderEvent) {
-        log.info("Publishing inventory event '{}' to '{}'", topic, orderEvent.getOrder().getOrderEventStatus().getId());
+    public void publishDeleteChart(List<OrderEvent> orderEvents) {
+        publishEvents("deleteChartTopic", "delete-chart-outboxed", orderEvents);
+    }
+
+    public void publishOrderFailed(List<OrderEvent> orderEvents) {
+        publishEvents("orderFailedTopic", "order-failed-outboxed", orderEvents.stream().map(OrderEvent::withoutItems).toList());
+    }
+
+    public void publishRollbackPayment(List<OrderEvent> orderEvents) {
+        publishEvents("rollbackPaymentTopic", "rollback-payment-outboxed", orderEvents);
+    }
 
-        try {
-            Observation.createNotStarted(observationName, this.observationRegistry).observe(() -> {
-                CompletableFuture<SendResult<String, OrderEvent>> future = kafkaTemplate.send(topic, orderEvent);
-                return future.handle((result, throwable) -> CompletableFuture.completedFuture(result));
-            });
-        } catch (Exception exception) {
-            log.error("Exception occurred while sending message to kafka, exception message: {}", exception.getMessage());
+    private void publishEvent(String topic, String observationName, OrderEvent orderEvent, boolean rollbackOnly) {
+        log.info("Publishing inventory event '{}' to '{}'", orderEvent.getOrder().getOrderEventStatus().getId(), topic);
+
+        Observation.createNotStarted(observationName, this.observationRegistry)
+            .observe(() -> outboxWriter.write(topic, orderEvent, rollbackOnly));
+    }
+
+    private void publishEvents(String topic, String observationName, List<OrderEvent> orderEvents) {
+        if (orderEvents.isEmpty()) {
+            return;
         }
+        log.info("Publishing '{}' inventory events to '{}'", orderEvents.size(), topic);
+
+        Observation.createNotStarted(observationName, this.observationRegistry)
+            .observe(() -> outboxWriter.writeAll(topic, orderEvents));
     }
 }
-
@@ -0,0 +1,64 @@
+package com.taltech.ecommerce.inventoryservice.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.taltech.ecommerce.inventoryservice.enumeration.MovementType;
+import com.taltech.ecommerce.inventoryservice.model.InventoryMovement;
+
+public interface InventoryMovementRepository extends JpaRepository<InventoryMovement, Long> {
+
+    /**
+     * Serializes the movements of one inventory code until the end of the transaction. Every ledger writer and the
+     * compaction take this lock, so compaction never folds past a movement that is not committed yet.
+     */
+    @Query(value = "select count(*) from (select pg_advisory_xact_lock(:namespace, hashtext(:code))) as ledger_lock",
+        nativeQuery = true)
+    long lockCode(@Param("namespace") int namespace, @Param("code") String code);
+
+    boolean existsByOrderEventIdAndMovementType(String orderEventId, MovementType movementType);
+
+    /**
+     * Returns the snapshot quantity of the code plus its movements not yet compacted into it, or null for an
+     * unknown code.
+     */
+    @Query(value = "select coalesce(i.quantity, 0) + coalesce((select sum(m.delta) from inventory_movement m "
+        + "where m.inventory_code = i.code and m.id > coalesce(i.ledger_position, 0)), 0) "
+        + "from inventory i where i.code = :code", nativeQuery = true)
+    Long findAvailableQuantity(@Param("code") String code);
+
+    @Modifying
+    @Query(value = "insert into inventory_movement (order_event_id, inventory_code, delta, movement_type, insert_date) "
+        + "select :orderEventId, movement.code, movement.delta, :movementType, now() "
+        + "from unnest(cast(:codes as varchar[]), cast(:deltas as integer[])) as movement(code, delta) "
+        + "on conflict (order_event_id, inventory_code, movement_type) do nothing", nativeQuery = true)
+    int insertMovements(@Param("orderEventId") String orderEventId,
+                        @Param("movementType") int movementType,
+                        @Param("codes") String[] codes,
+                        @Param("deltas") Integer[] deltas);
+
+    @Query(value = "select distinct m.inventory_code from inventory_movement m join inventory i on i.code = m.inventory_code "
+        + "where m.id > coalesce(i.ledger_position, 0) order by m.inventory_code limit :batchSize", nativeQuery = true)
+    List<String> findUncompactedCodes(@Param("batchSize") int batchSize);
+
+    /**
+     * Folds the movements of the code not yet compacted into the snapshot quantity of its inventory row.
+     */
+    @Modifying
+    @Query(value = "update inventory set quantity = coalesce(quantity, 0) + movement.delta, ledger_position = movement.position, "
+        + "update_date = now() "
+        + "from (select sum(m.delta) as delta, max(m.id) as position from inventory_movement m join inventory i "
+        + "on i.code = m.inventory_code where i.code = :code and m.id > coalesce(i.ledger_position, 0)) as movement "
+        + "where inventory.code = :code and movement.position is not null", nativeQuery = true)
+    int compact(@Param("code") String code);
+
+    @Modifying
+    @Query(value = "delete from inventory_movement m using inventory i where i.code = m.inventory_code "
+        + "and m.id <= coalesce(i.ledger_position, 0) and m.insert_date < :insertDate", nativeQuery = true)
+    int deleteCompactedBefore(@Param("insertDate") LocalDateTime insertDate);
+}
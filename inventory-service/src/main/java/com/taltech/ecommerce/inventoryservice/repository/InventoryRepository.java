@@ -1,11 +1,63 @@
 package com.taltech.ecommerce.inventoryservice.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.taltech.ecommerce.inventoryservice.model.Inventory;
 
 public interface InventoryRepository extends JpaRepository<Inventory, Long> {
-    List<Inventory> findByCodeIn(List<String> code);
+
+    Optional<Inventory> findByCode(String code);
+
+    boolean existsByCode(String code);
+
+    /**
+     * Locks the rows of the codes in code order, so transactions changing several codes never deadlock.
+     */
+    @Query(value = "select id from inventory where code in (:codes) order by code for update", nativeQuery = true)
+    List<Long> lockByCodes(@Param("codes") List<String> codes);
+
+    @Modifying
+    @Query("update Inventory i set i.quantity = i.quantity - :quantity, i.updateDate = :updateDate "
+        + "where i.code = :code and i.quantity >= :quantity")
+    int decrementQuantity(@Param("code") String code, @Param("quantity") int quantity, @Param("updateDate") LocalDateTime updateDate);
+
+    @Modifying
+    @Query("update Inventory i set i.quantity = i.quantity + :quantity, i.updateDate = :updateDate where i.code = :code")
+    int incrementQuantity(@Param("code") String code, @Param("quantity") int quantity, @Param("updateDate") LocalDateTime updateDate);
+
+    @Modifying
+    @Query(value = "update inventory set quantity = stock.quantity, update_date = now() "
+        + "from unnest(cast(:codes as varchar[]), cast(:quantities as integer[])) as stock(code, quantity) "
+        + "where inventory.code = stock.code", nativeQuery = true)
+    int updateQuantities(@Param("codes") String[] codes, @Param("quantities") Integer[] quantities);
+
+    /**
+     * Creates the session staging table a catalog import copies into, dropped again when the transaction ends.
+     */
+    @Modifying
+    @Query(value = "create temporary table inventory_import (line bigserial, code varchar(255), name varchar(255), "
+        + "description varchar(255), quantity integer, price numeric(38, 2)) on commit drop", nativeQuery = true)
+    void createImportTable();
+
+    /**
+     * Upserts the staged catalog in code order, the last line of a code winning. Existing codes only get their
+     * catalog fields refreshed and rows that did not change are not rewritten; the stock of a new code is its
+     * imported quantity.
+     */
+    @Modifying
+    @Query(value = "insert into inventory (code, name, description, quantity, price, insert_date, update_date) "
+        + "select distinct on (code) code, name, description, coalesce(quantity, 0), price, now(), now() "
+        + "from inventory_import where code is not null order by code, line desc "
+        + "on conflict (code) do update set name = excluded.name, description = excluded.description, "
+        + "price = excluded.price, update_date = excluded.update_date "
+        + "where (inventory.name, inventory.description, inventory.price) "
+        + "is distinct from (excluded.name, excluded.description, excluded.price)", nativeQuery = true)
+    int mergeImport();
 }
@@ -0,0 +1,64 @@
+package com.taltech.ecommerce.inventoryservice.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.taltech.ecommerce.inventoryservice.model.InventoryShard;
+
+public interface InventoryShardRepository extends JpaRepository<InventoryShard, Long> {
+
+    interface ShardQuantity {
+
+        Long getId();
+
+        Integer getQuantity();
+    }
+
+    List<InventoryShard> findByInventoryCodeOrderByShardIndex(String inventoryCode);
+
+    @Query(value = "select distinct inventory_code from inventory_shard where inventory_code in (:codes)", nativeQuery = true)
+    List<String> findShardedCodes(@Param("codes") Collection<String> codes);
+
+    /**
+     * Takes the quantity from a random shard holding enough of it, skipping shards locked by other transactions.
+     */
+    @Modifying
+    @Query(value = "update inventory_shard set quantity = quantity - :quantity, update_date = now() where id = ("
+        + "select id from inventory_shard where inventory_code = :code and quantity >= :quantity "
+        + "order by random() limit 1 for update skip locked)", nativeQuery = true)
+    int decrementRandomShard(@Param("code") String code, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query(value = "update inventory_shard set quantity = quantity + :quantity, update_date = now() where id = ("
+        + "select id from inventory_shard where inventory_code = :code "
+        + "order by random() limit 1 for update skip locked)", nativeQuery = true)
+    int incrementRandomShard(@Param("code") String code, @Param("quantity") int quantity);
+
+    @Query(value = "select id, quantity from inventory_shard where inventory_code = :code order by shard_index for update",
+        nativeQuery = true)
+    List<ShardQuantity> lockShards(@Param("code") String code);
+
+    @Modifying
+    @Query(value = "update inventory_shard set quantity = quantity - :quantity, update_date = now() where id = :id",
+        nativeQuery = true)
+    int decrementShard(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("delete from InventoryShard s where s.inventoryCode = :code")
+    int deleteByInventoryCode(@Param("code") String code);
+
+    @Modifying
+    @Query(value = "update inventory_shard set quantity = stock.quantity, update_date = now() "
+        + "from unnest(cast(:codes as varchar[]), cast(:shardIndexes as integer[]), cast(:quantities as integer[])) "
+        + "as stock(code, shard_index, quantity) "
+        + "where inventory_shard.inventory_code = stock.code and inventory_shard.shard_index = stock.shard_index",
+        nativeQuery = true)
+    int updateQuantities(@Param("codes") String[] codes,
+                         @Param("shardIndexes") Integer[] shardIndexes,
+                         @Param("quantities") Integer[] quantities);
+}
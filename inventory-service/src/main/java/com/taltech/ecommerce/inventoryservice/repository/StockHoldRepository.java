@@ -0,0 +1,30 @@
+package com.taltech.ecommerce.inventoryservice.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.taltech.ecommerce.inventoryservice.model.StockHold;
+
+public interface StockHoldRepository extends JpaRepository<StockHold, Long> {
+
+    @Query(value = "select * from stock_hold where expire_date <= :now and release_date is null order by expire_date"
+        + " limit :batchSize for update skip locked", nativeQuery = true)
+    List<StockHold> findExpiredBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+
+    @Query(value = "select * from stock_hold where order_event_id in (:orderEventIds) for update", nativeQuery = true)
+    List<StockHold> lockByOrderEventIds(@Param("orderEventIds") List<String> orderEventIds);
+
+    @Modifying
+    @Query("update StockHold h set h.releaseDate = :releaseDate where h.id in :ids")
+    int markReleased(@Param("ids") List<Long> ids, @Param("releaseDate") LocalDateTime releaseDate);
+
+    @Modifying
+    @Query(value = "delete from stock_hold where id in (select id from stock_hold where release_date <= :releasedBefore"
+        + " limit :batchSize for update skip locked)", nativeQuery = true)
+    int deleteReleasedBatch(@Param("releasedBefore") LocalDateTime releasedBefore, @Param("batchSize") int batchSize);
+}
@@ -0,0 +1,218 @@
+package com.taltech.ecommerce.inventoryservice.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.taltech.ecommerce.inventoryservice.dto.InventoryStockDto;
+import com.taltech.ecommerce.inventoryservice.enumeration.MovementType;
+import com.taltech.ecommerce.inventoryservice.exception.InventoryLimitException;
+import com.taltech.ecommerce.inventoryservice.model.Inventory;
+import com.taltech.ecommerce.inventoryservice.model.InventoryShard;
+import com.taltech.ecommerce.inventoryservice.repository.InventoryRepository;
+import com.taltech.ecommerce.inventoryservice.repository.InventoryShardRepository;
+import com.taltech.ecommerce.inventoryservice.repository.InventoryShardRepository.ShardQuantity;
+import com.taltech.ecommerce.sagaevents.dto.OrderItemDto;
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Changes the stock directly in the inventory table, inside the transaction of the caller. Every code is changed
+ * with one conditional update in code order, so stock can never go below zero and concurrent orders neither lose
+ * updates nor deadlock. Sharded codes keep their stock in the inventory_shard table: a decrement that the
+ * inventory row can't cover takes a random unlocked shard, and only locks all shards of the code when no single
+ * shard holds enough.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.stock.store", havingValue = "database", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class DatabaseStockStore implements StockStore {
+
+    private final InventoryRepository repository;
+    private final InventoryShardRepository shardRepository;
+
+    @Override
+    public void decrement(MovementType movementType, String orderEventId, List<OrderItemDto> orderItems) {
+        log.info("{} - Updating inventory for '{}' inventory items", movementType.getAction(), orderItems.size());
+        apply(movementType.getAction(), quantitiesByCode(orderItems), true);
+    }
+
+    @Override
+    public void increment(MovementType movementType, String orderEventId, List<OrderItemDto> orderItems) {
+        log.info("{} - Updating inventory for '{}' inventory items", movementType.getAction(), orderItems.size());
+        apply(movementType.getAction(), quantitiesByCode(orderItems), false);
+    }
+
+    @Override
+    public Map<OrderEvent, RuntimeException> decrementEach(MovementType movementType, List<OrderEvent> orderEvents) {
+        return applyEach(movementType.getAction(), orderEvents, true);
+    }
+
+    @Override
+    public Map<OrderEvent, RuntimeException> incrementEach(MovementType movementType, List<OrderEvent> orderEvents) {
+        return applyEach(movementType.getAction(), orderEvents, false);
+    }
+
+    /**
+     * Orders of a batch may share codes in any order, so the inventory rows of the batch are locked in code order
+     * first. Sharded codes are left out: their rows are hot by definition, so the batch takes their stock from a
+     * random unlocked shard before touching the inventory row, like single orders spread over the shards. A
+     * rejected order puts back the quantities it already took, leaving the other orders of the batch in place.
+     */
+    private Map<OrderEvent, RuntimeException> applyEach(String action, List<OrderEvent> orderEvents, boolean decrement) {
+        List<String> codes = orderEvents.stream()
+            .flatMap(orderEvent -> orderEvent.getOrder().getOrderItems().stream())
+            .map(OrderItemDto::getInventoryCode)
+            .distinct()
+            .sorted()
+            .toList();
+        log.info("{} - Updating inventory for '{}' inventory codes of '{}' events", action, codes.size(), orderEvents.size());
+        Set<String> shardedCodes = codes.isEmpty() ? Set.of() : new HashSet<>(shardRepository.findShardedCodes(codes));
+        List<String> lockedCodes = codes.stream().filter(code -> !shardedCodes.contains(code)).toList();
+        if (!lockedCodes.isEmpty()) {
+            repository.lockByCodes(lockedCodes);
+        }
+
+        Map<OrderEvent, RuntimeException> failures = new IdentityHashMap<>();
+        orderEvents.forEach(orderEvent -> {
+            Map<String, Integer> quantities = quantitiesByCode(orderEvent.getOrder().getOrderItems());
+            List<String> appliedCodes = new ArrayList<>();
+            try {
+                quantities.forEach((code, quantity) -> {
+                    apply(action, code, quantity, decrement, shardedCodes.contains(code));
+                    appliedCodes.add(code);
+                });
+            }
+            catch (InventoryLimitException | EntityNotFoundException exception) {
+                appliedCodes.forEach(code -> apply(action, code, quantities.get(code), !decrement, shardedCodes.contains(code)));
+                failures.put(orderEvent, exception);
+            }
+        });
+        return failures;
+    }
+
+    private void apply(String action, Map<String, Integer> quantities, boolean decrement) {
+        quantities.forEach((code, quantity) -> apply(action, code, quantity, decrement, false));
+    }
+
+    @Override
+    public InventoryStockDto findStock(String code) {
+        Inventory inventory = findInventory("Find", code);
+        List<Integer> shardQuantities = shardRepository.findByInventoryCodeOrderByShardIndex(code).stream()
+            .map(InventoryShard::getQuantity)
+            .toList();
+        return StockShards.toStockDto(code, quantity(inventory), shardQuantities);
+    }
+
+    @Override
+    public InventoryStockDto rebalance(String code, int shardCount) {
+        repository.lockByCodes(List.of(code));
+        Inventory inventory = findInventory("Rebalance", code);
+        long total = quantity(inventory) + shardRepository.lockShards(code).stream()
+            .mapToLong(ShardQuantity::getQuantity)
+            .sum();
+        int[] quantities = StockShards.distribute(code, total, shardCount);
+
+        shardRepository.deleteByInventoryCode(code);
+        LocalDateTime updateDate = LocalDateTime.now();
+        List<InventoryShard> shards = new ArrayList<>(shardCount);
+        for (int shardIndex = 0; shardIndex < shardCount; shardIndex++) {
+            shards.add(InventoryShard.builder()
+                .inventoryCode(code)
+                .shardIndex(shardIndex)
+                .quantity(quantities[shardIndex + 1])
+                .updateDate(updateDate)
+                .build());
+        }
+        shardRepository.saveAll(shards);
+        inventory.setQuantity(quantities[0]);
+        inventory.setUpdateDate(updateDate);
+        repository.saveAndFlush(inventory);
+
+        log.info("Rebalanced stock '{}' of inventory code '{}' over '{}' shards", total, code, shardCount);
+        return StockShards.toStockDto(code, quantities[0], Arrays.stream(quantities, 1, quantities.length).boxed().toList());
+    }
+
+    /**
+     * With {@code shardFirst} a decrement tries a random unlocked shard before the inventory row of the code.
+     */
+    private void apply(String action, String code, int quantity, boolean decrement, boolean shardFirst) {
+        LocalDateTime updateDate = LocalDateTime.now();
+        if (decrement) {
+            if (shardFirst && shardRepository.decrementRandomShard(code, quantity) == 1
+                || repository.decrementQuantity(code, quantity, updateDate) == 1
+                || !shardFirst && shardRepository.decrementRandomShard(code, quantity) == 1
+                || decrementShards(action, code, quantity)) {
+                return;
+            }
+            if (repository.existsByCode(code)) {
+                throw new InventoryLimitException(String.format("%s - Not enough quantity for received inventory quantity '%s' of inventory item code '%s'",
+                    action,
+                    quantity,
+                    code));
+            }
+        }
+        else if (shardRepository.incrementRandomShard(code, quantity) == 1
+            || repository.incrementQuantity(code, quantity, updateDate) == 1) {
+            return;
+        }
+        throw new EntityNotFoundException(String.format("%s - Inventory with code '%s' not found", action, code));
+    }
+
+    /**
+     * Takes the quantity spread over several shards of the code, returning false when the code has no shards.
+     */
+    private boolean decrementShards(String action, String code, int quantity) {
+        List<ShardQuantity> shards = shardRepository.lockShards(code);
+        if (shards.isEmpty()) {
+            return false;
+        }
+        long available = shards.stream().mapToLong(ShardQuantity::getQuantity).sum();
+        if (available < quantity) {
+            throw new InventoryLimitException(String.format("%s - Received inventory quantity '%s' is more than found inventory quantity '%s'",
+                action,
+                quantity,
+                available));
+        }
+        int remaining = quantity;
+        for (ShardQuantity shard : shards) {
+            int taken = Math.min(remaining, shard.getQuantity());
+            if (taken > 0) {
+                shardRepository.decrementShard(shard.getId(), taken);
+                remaining -= taken;
+            }
+        }
+        return true;
+    }
+
+    private Inventory findInventory(String action, String code) {
+        return repository.findByCode(code)
+            .orElseThrow(() -> new EntityNotFoundException(String.format("%s - Inventory with code '%s' not found", action, code)));
+    }
+
+    private static int quantity(Inventory inventory) {
+        return inventory.getQuantity() == null ? 0 : inventory.getQuantity();
+    }
+
+    /**
+     * Sums the quantities of items sharing a code, sorted by code to take row locks in a deterministic order.
+     */
+    private static Map<String, Integer> quantitiesByCode(List<OrderItemDto> orderItems) {
+        Map<String, Integer> quantities = new TreeMap<>();
+        orderItems.forEach(orderItem -> quantities.merge(orderItem.getInventoryCode(), orderItem.getQuantity(), Integer::sum));
+        return quantities;
+    }
+}
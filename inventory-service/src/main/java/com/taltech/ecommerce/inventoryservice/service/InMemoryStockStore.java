@@ -0,0 +1,423 @@
+package com.taltech.ecommerce.inventoryservice.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.taltech.ecommerce.inventoryservice.dto.InventoryStockDto;
+import com.taltech.ecommerce.inventoryservice.enumeration.MovementType;
+import com.taltech.ecommerce.inventoryservice.exception.InventoryLimitException;
+import com.taltech.ecommerce.inventoryservice.model.Inventory;
+import com.taltech.ecommerce.inventoryservice.model.InventoryShard;
+import com.taltech.ecommerce.inventoryservice.repository.InventoryRepository;
+import com.taltech.ecommerce.inventoryservice.repository.InventoryShardRepository;
+import com.taltech.ecommerce.sagaevents.dto.OrderItemDto;
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Authoritative stock kept in memory in {@link StockCounters}, one per inventory code. Each change is appended to
+ * the {@link StockJournal} before the caller continues, and changed slots are written to the inventory and
+ * inventory_shard tables in coalesced batches by the write-behind task, after which the journal segments holding
+ * them are dropped. On startup the tables are loaded and the journal replayed over them, which recovers the
+ * changes a crash kept from reaching the tables. A rebalance writes the new shards through to the tables at once.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.stock.store", havingValue = "in-memory")
+@Slf4j
+public class InMemoryStockStore implements StockStore {
+
+    private final InventoryRepository repository;
+    private final InventoryShardRepository shardRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final StockJournal journal;
+    private final int writeBatchSize;
+    private final Map<String, StockCounters> stock = new ConcurrentHashMap<>();
+    private final Set<StockJournal.Slot> changedSlots = ConcurrentHashMap.newKeySet();
+
+    public InMemoryStockStore(InventoryRepository repository,
+                              InventoryShardRepository shardRepository,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${inventory.stock.journal.directory}") Path journalDirectory,
+                              @Value("${inventory.stock.journal.fsync}") boolean fsync,
+                              @Value("${inventory.stock.write-behind.batch-size}") int writeBatchSize) {
+        this.repository = repository;
+        this.shardRepository = shardRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.journal = new StockJournal(journalDirectory, fsync);
+        this.writeBatchSize = writeBatchSize;
+    }
+
+    @PostConstruct
+    public void load() {
+        Map<String, List<InventoryShard>> shardsByCode = shardRepository.findAll().stream()
+            .collect(Collectors.groupingBy(InventoryShard::getInventoryCode));
+        Map<StockJournal.Slot, StockJournal.Entry> journalEntries = journal.replay();
+
+        repository.findAll().forEach(inventory -> {
+            String code = inventory.getCode();
+            int[] quantities = quantities(inventory, shardsByCode.getOrDefault(code, List.of()));
+            int[] versions = new int[quantities.length];
+            for (int slot = 0; slot < quantities.length; slot++) {
+                StockJournal.Entry entry = journalEntries.get(new StockJournal.Slot(code, slot));
+                if (entry != null) {
+                    quantities[slot] = entry.quantity();
+                    versions[slot] = entry.version();
+                    changedSlots.add(entry.key());
+                }
+            }
+            stock.put(code, new StockCounters(code, quantities, versions));
+        });
+        log.info("Loaded stock of '{}' inventory codes, '{}' slots recovered from the journal", stock.size(), changedSlots.size());
+        writeBehind();
+    }
+
+    @Override
+    public void decrement(MovementType movementType, String orderEventId, List<OrderItemDto> orderItems) {
+        change(movementType.getAction(), orderItems, -1);
+    }
+
+    @Override
+    public void increment(MovementType movementType, String orderEventId, List<OrderItemDto> orderItems) {
+        change(movementType.getAction(), orderItems, 1);
+    }
+
+    @Override
+    public Map<OrderEvent, RuntimeException> decrementEach(MovementType movementType, List<OrderEvent> orderEvents) {
+        return changeEach(movementType.getAction(), orderEvents, -1);
+    }
+
+    @Override
+    public Map<OrderEvent, RuntimeException> incrementEach(MovementType movementType, List<OrderEvent> orderEvents) {
+        return changeEach(movementType.getAction(), orderEvents, 1);
+    }
+
+    @Override
+    public InventoryStockDto findStock(String code) {
+        while (true) {
+            StockCounters counters = counters("Find", code);
+            int[] quantities = new int[counters.slotCount()];
+            for (int slot = 0; slot < quantities.length; slot++) {
+                quantities[slot] = counters.quantity(slot);
+            }
+            if (!counters.isSealed()) {
+                return StockShards.toStockDto(code, quantities[0], Arrays.stream(quantities, 1, quantities.length).boxed().toList());
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Runs one rebalance at a time. Changes of the code wait while its counters are sealed, which lasts until the
+     * new shards are written to the tables.
+     */
+    @Override
+    public synchronized InventoryStockDto rebalance(String code, int shardCount) {
+        StockCounters counters = counters("Rebalance", code);
+        long[] sealedValues = counters.seal();
+        long total = Arrays.stream(sealedValues, 0, counters.slotCount()).sum();
+        int version = (int) sealedValues[counters.slotCount()] + 1;
+
+        int[] quantities;
+        try {
+            quantities = StockShards.distribute(code, total, shardCount);
+            transactionTemplate.executeWithoutResult(status -> writeShards(code, quantities));
+        }
+        catch (RuntimeException exception) {
+            int[] previousQuantities = Arrays.stream(sealedValues, 0, counters.slotCount()).mapToInt(Math::toIntExact).toArray();
+            replace(code, previousQuantities, version);
+            throw exception;
+        }
+        replace(code, quantities, version);
+
+        log.info("Rebalanced stock '{}' of inventory code '{}' over '{}' shards", total, code, shardCount);
+        return StockShards.toStockDto(code, quantities[0], Arrays.stream(quantities, 1, quantities.length).boxed().toList());
+    }
+
+    /**
+     * Writes the current quantity of every changed slot to the tables. A slot changed again while the batch is
+     * written stays marked and is written by the next run.
+     */
+    @Scheduled(fixedDelayString = "${inventory.stock.write-behind.interval}")
+    public void writeBehind() {
+        if (changedSlots.isEmpty()) {
+            return;
+        }
+        long segment = journal.rotate();
+        List<StockJournal.Slot> slots = new ArrayList<>(writeBatchSize);
+        List<Integer> quantities = new ArrayList<>(writeBatchSize);
+        List<StockJournal.Slot> sealedSlots = new ArrayList<>();
+        Iterator<StockJournal.Slot> iterator = changedSlots.iterator();
+        try {
+            while (iterator.hasNext()) {
+                StockJournal.Slot slot = iterator.next();
+                iterator.remove();
+                StockCounters counters = stock.get(slot.code());
+                if (counters != null && slot.index() < counters.slotCount()) {
+                    int quantity = counters.quantity(slot.index());
+                    if (quantity < 0) {
+                        sealedSlots.add(slot);
+                    }
+                    else {
+                        slots.add(slot);
+                        quantities.add(quantity);
+                    }
+                }
+                if (slots.size() == writeBatchSize || (!iterator.hasNext() && !slots.isEmpty())) {
+                    transactionTemplate.executeWithoutResult(status -> writeQuantities(slots, quantities));
+                    slots.clear();
+                    quantities.clear();
+                }
+            }
+        }
+        catch (Exception exception) {
+            changedSlots.addAll(slots);
+            changedSlots.addAll(sealedSlots);
+            log.error("Writing stock to the inventory tables failed with exception message: {}", exception.getMessage());
+            return;
+        }
+        changedSlots.addAll(sealedSlots);
+        journal.deleteSegmentsBefore(segment);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        writeBehind();
+        journal.close();
+    }
+
+    private Map<OrderEvent, RuntimeException> changeEach(String action, List<OrderEvent> orderEvents, int sign) {
+        Map<OrderEvent, RuntimeException> failures = new IdentityHashMap<>();
+        List<StockJournal.Entry> entries = new ArrayList<>();
+        Map<String, Integer> appliedDeltas = new TreeMap<>();
+
+        orderEvents.forEach(orderEvent -> {
+            try {
+                Map<String, Integer> deltas = deltas(orderEvent.getOrder().getOrderItems(), sign);
+                apply(action, deltas, entries);
+                deltas.forEach((code, delta) -> appliedDeltas.merge(code, delta, Integer::sum));
+            }
+            catch (InventoryLimitException | EntityNotFoundException exception) {
+                failures.put(orderEvent, exception);
+            }
+        });
+
+        appendToJournal(entries);
+        undoOnRollback(appliedDeltas);
+        return failures;
+    }
+
+    private void change(String action, List<OrderItemDto> orderItems, int sign) {
+        Map<String, Integer> deltas = deltas(orderItems, sign);
+        List<StockJournal.Entry> entries = new ArrayList<>();
+        try {
+            apply(action, deltas, entries);
+        }
+        finally {
+            appendToJournal(entries);
+        }
+        undoOnRollback(deltas);
+    }
+
+    /**
+     * Applies all deltas or, when one of them is rejected, puts back the ones already applied and rethrows.
+     */
+    private void apply(String action, Map<String, Integer> deltas, List<StockJournal.Entry> entries) {
+        Map<String, Integer> applied = new TreeMap<>();
+        try {
+            deltas.forEach((code, delta) -> {
+                apply(action, code, delta, entries);
+                applied.put(code, delta);
+            });
+        }
+        catch (RuntimeException exception) {
+            applied.forEach((code, delta) -> apply(action, code, -delta, entries));
+            throw exception;
+        }
+    }
+
+    private void apply(String action, String code, int delta, List<StockJournal.Entry> entries) {
+        if (delta > 0) {
+            give(action, code, delta, entries);
+            return;
+        }
+        int quantity = -delta;
+        while (true) {
+            StockCounters counters = counters(action, code);
+            int taken = counters.take(quantity, entries);
+            if (taken == quantity) {
+                return;
+            }
+            if (taken > 0) {
+                give(action, code, taken, entries);
+            }
+            if (!counters.isSealed()) {
+                throw new InventoryLimitException(String.format("%s - Not enough quantity for received inventory quantity '%s' of inventory item code '%s'",
+                    action,
+                    quantity,
+                    code));
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private void give(String action, String code, int quantity, List<StockJournal.Entry> entries) {
+        while (true) {
+            StockCounters counters = counters(action, code);
+            if (counters.give(quantity, entries)) {
+                return;
+            }
+            if (!counters.isSealed()) {
+                throw new InventoryLimitException(String.format("%s - Received inventory quantity '%s' overflows the quantity of inventory item code '%s'",
+                    action,
+                    quantity,
+                    code));
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private StockCounters counters(String action, String code) {
+        StockCounters counters = stock.computeIfAbsent(code, this::loadCounters);
+        if (counters == null) {
+            throw new EntityNotFoundException(String.format("%s - Inventory with code '%s' not found", action, code));
+        }
+        return counters;
+    }
+
+    /**
+     * The counters do not take part in the database transaction, so a rolled back saga step hands its change
+     * back here.
+     */
+    private void undoOnRollback(Map<String, Integer> deltas) {
+        if (deltas.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_ROLLED_BACK) {
+                    return;
+                }
+                List<StockJournal.Entry> entries = new ArrayList<>(deltas.size());
+                deltas.forEach((code, delta) -> {
+                    try {
+                        apply("Undo", code, -delta, entries);
+                    }
+                    catch (InventoryLimitException exception) {
+                        log.error("Undoing stock change of inventory code '{}' failed with exception message: {}",
+                            code, exception.getMessage());
+                    }
+                });
+                appendToJournal(entries);
+            }
+        });
+    }
+
+    /**
+     * Journals the changed slots and marks them for the next write behind, which persists them to the database.
+     */
+    private void appendToJournal(List<StockJournal.Entry> entries) {
+        journal.append(entries);
+        entries.forEach(entry -> changedSlots.add(entry.key()));
+    }
+
+    private void replace(String code, int[] quantities, int version) {
+        int[] versions = new int[quantities.length];
+        Arrays.fill(versions, version);
+        List<StockJournal.Entry> entries = new ArrayList<>(quantities.length);
+        for (int slot = 0; slot < quantities.length; slot++) {
+            entries.add(new StockJournal.Entry(code, slot, version, quantities[slot]));
+        }
+        journal.append(entries);
+        stock.put(code, new StockCounters(code, quantities, versions));
+        entries.forEach(entry -> changedSlots.add(entry.key()));
+    }
+
+    private void writeShards(String code, int[] quantities) {
+        LocalDateTime updateDate = LocalDateTime.now();
+        shardRepository.deleteByInventoryCode(code);
+        List<InventoryShard> shards = new ArrayList<>(quantities.length - 1);
+        for (int slot = 1; slot < quantities.length; slot++) {
+            shards.add(InventoryShard.builder()
+                .inventoryCode(code)
+                .shardIndex(slot - 1)
+                .quantity(quantities[slot])
+                .updateDate(updateDate)
+                .build());
+        }
+        shardRepository.saveAll(shards);
+        repository.updateQuantities(new String[] {code}, new Integer[] {quantities[0]});
+    }
+
+    private void writeQuantities(List<StockJournal.Slot> slots, List<Integer> quantities) {
+        List<String> codes = new ArrayList<>();
+        List<Integer> codeQuantities = new ArrayList<>();
+        List<String> shardCodes = new ArrayList<>();
+        List<Integer> shardIndexes = new ArrayList<>();
+        List<Integer> shardQuantities = new ArrayList<>();
+        for (int index = 0; index < slots.size(); index++) {
+            StockJournal.Slot slot = slots.get(index);
+            if (slot.index() == 0) {
+                codes.add(slot.code());
+                codeQuantities.add(quantities.get(index));
+            }
+            else {
+                shardCodes.add(slot.code());
+                shardIndexes.add(slot.index() - 1);
+                shardQuantities.add(quantities.get(index));
+            }
+        }
+        if (!codes.isEmpty()) {
+            repository.updateQuantities(codes.toArray(String[]::new), codeQuantities.toArray(Integer[]::new));
+        }
+        if (!shardCodes.isEmpty()) {
+            shardRepository.updateQuantities(shardCodes.toArray(String[]::new), shardIndexes.toArray(Integer[]::new),
+                shardQuantities.toArray(Integer[]::new));
+        }
+    }
+
+    private StockCounters loadCounters(String code) {
+        return repository.findByCode(code)
+            .map(inventory -> {
+                int[] quantities = quantities(inventory, shardRepository.findByInventoryCodeOrderByShardIndex(code));
+                return new StockCounters(code, quantities, new int[quantities.length]);
+            })
+            .orElse(null);
+    }
+
+    private static int[] quantities(Inventory inventory, List<InventoryShard> shards) {
+        int[] quantities = new int[shards.size() + 1];
+        quantities[0] = inventory.getQuantity() == null ? 0 : inventory.getQuantity();
+        shards.forEach(shard -> quantities[shard.getShardIndex() + 1] = shard.getQuantity());
+        return quantities;
+    }
+
+    private static Map<String, Integer> deltas(List<OrderItemDto> orderItems, int sign) {
+        Map<String, Integer> deltas = new TreeMap<>();
+        orderItems.forEach(orderItem -> deltas.merge(orderItem.getInventoryCode(), sign * orderItem.getQuantity(), Integer::sum));
+        return deltas;
+    }
+}
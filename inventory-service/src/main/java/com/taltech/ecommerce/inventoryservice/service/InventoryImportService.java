@@ -0,0 +1,127 @@
+package com.taltech.ecommerce.inventoryservice.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.taltech.ecommerce.inventoryservice.dto.CatalogItemDto;
+import com.taltech.ecommerce.inventoryservice.dto.InventoryImportDto;
+import com.taltech.ecommerce.inventoryservice.enumeration.CatalogFormat;
+import com.taltech.ecommerce.inventoryservice.exception.InventoryImportException;
+import com.taltech.ecommerce.inventoryservice.repository.InventoryRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Imports a catalog of any size in one transaction. The stream is copied into a staging table with the Postgres
+ * COPY protocol and merged into the inventory table with a single upsert, so memory stays bounded by the copy
+ * buffer. CSV is passed to the database as it is and must have a header line followed by the columns
+ * {@code code,name,description,quantity,price}; NDJSON objects with the same fields are read one at a time and
+ * re-encoded as CSV.
+ */
+@Service
+@Transactional
+@Slf4j
+public class InventoryImportService {
+
+    private static final String CSV_COPY = "copy inventory_import (code, name, description, quantity, price) "
+        + "from stdin with (format csv, header true)";
+    private static final String NDJSON_COPY = "copy inventory_import (code, name, description, quantity, price) "
+        + "from stdin with (format csv)";
+
+    private final InventoryRepository repository;
+    private final DataSource dataSource;
+    private final ObjectReader catalogItemReader;
+    private final int bufferSize;
+
+    public InventoryImportService(InventoryRepository repository,
+                                  DataSource dataSource,
+                                  ObjectMapper objectMapper,
+                                  @Value("${inventory.import.buffer-size}") DataSize bufferSize) {
+        this.repository = repository;
+        this.dataSource = dataSource;
+        this.catalogItemReader = objectMapper.readerFor(CatalogItemDto.class);
+        this.bufferSize = Math.toIntExact(bufferSize.toBytes());
+    }
+
+    public InventoryImportDto importCatalog(InputStream input, CatalogFormat format) {
+        repository.createImportTable();
+        long stagedCount = copy(input, format);
+        int mergedCount = repository.mergeImport();
+        log.info("Import - Staged '{}' {} catalog lines, inserted or changed '{}' inventory codes", stagedCount, format, mergedCount);
+        return new InventoryImportDto(stagedCount, mergedCount);
+    }
+
+    private long copy(InputStream input, CatalogFormat format) {
+        // The connection of the current transaction, so the copy sees the staging table and commits with the merge
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            return switch (format) {
+                case CSV -> copyManager.copyIn(CSV_COPY, input, bufferSize);
+                case NDJSON -> copyNdjson(copyManager, input);
+            };
+        }
+        catch (SQLException | IOException exception) {
+            throw new InventoryImportException(String.format("Import - Copying %s catalog failed with message: %s",
+                format,
+                exception.getMessage()), exception);
+        }
+    }
+
+    private long copyNdjson(CopyManager copyManager, InputStream input) throws SQLException, IOException {
+        CopyIn copyIn = copyManager.copyIn(NDJSON_COPY);
+        try {
+            PGCopyOutputStream output = new PGCopyOutputStream(copyIn, bufferSize);
+            Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+            try (MappingIterator<CatalogItemDto> catalogItems = catalogItemReader.readValues(input)) {
+                while (catalogItems.hasNextValue()) {
+                    CatalogItemDto catalogItem = catalogItems.nextValue();
+                    writeField(writer, catalogItem.getCode(), ',');
+                    writeField(writer, catalogItem.getName(), ',');
+                    writeField(writer, catalogItem.getDescription(), ',');
+                    writeField(writer, catalogItem.getQuantity(), ',');
+                    writeField(writer, catalogItem.getPrice(), '\n');
+                }
+            }
+            writer.flush();
+            return output.endCopy();
+        }
+        finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    /**
+     * Writes a quoted CSV field, or an unquoted empty one that COPY reads as null.
+     */
+    private static void writeField(Writer writer, Object value, char separator) throws IOException {
+        if (value != null) {
+            writer.write('"');
+            writer.write(value.toString().replace("\"", "\"\""));
+            writer.write('"');
+        }
+        writer.write(separator);
+    }
+}
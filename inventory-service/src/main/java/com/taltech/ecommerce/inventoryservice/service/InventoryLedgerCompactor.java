@@ -0,0 +1,70 @@
+package com.taltech.ecommerce.inventoryservice.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.taltech.ecommerce.inventoryservice.repository.InventoryMovementRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Folds the ledger movements of every code into the snapshot quantity of its inventory row, so reading the stock
+ * of a code only sums its recent movements. Compacted movements are kept for audit and for recognising replayed
+ * events until they are older than the retention.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.stock.store", havingValue = "ledger")
+@Slf4j
+public class InventoryLedgerCompactor {
+
+    private final InventoryMovementRepository movementRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+
+    public InventoryLedgerCompactor(InventoryMovementRepository movementRepository,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${inventory.ledger.compaction.batch-size}") int batchSize,
+                                    @Value("${inventory.ledger.retention}") Duration retention) {
+        this.movementRepository = movementRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.ledger.compaction.interval}")
+    public void compact() {
+        try {
+            Integer compactedCount;
+            do {
+                compactedCount = transactionTemplate.execute(status -> compactBatch());
+            } while (compactedCount != null && compactedCount == batchSize);
+
+            Integer deletedCount = transactionTemplate.execute(status ->
+                movementRepository.deleteCompactedBefore(LocalDateTime.now().minus(retention)));
+            if (deletedCount != null && deletedCount > 0) {
+                log.info("Deleted '{}' compacted inventory movements", deletedCount);
+            }
+        }
+        catch (Exception exception) {
+            log.error("Compacting inventory movements failed with exception message: {}", exception.getMessage());
+        }
+    }
+
+    private int compactBatch() {
+        List<String> codes = movementRepository.findUncompactedCodes(batchSize);
+        codes.forEach(code -> {
+            movementRepository.lockCode(LedgerStockStore.LOCK_NAMESPACE, code);
+            movementRepository.compact(code);
+        });
+        log.debug("Compacted inventory movements of '{}' inventory codes", codes.size());
+        return codes.size();
+    }
+}
@@ -1,20 +1,25 @@
 package com.taltech.ecommerce.inventoryservice.service;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
-import com.taltech.ecommerce.inventoryservice.enumeration.EventStatus;
-import com.taltech.ecommerce.inventoryservice.event.OrderEvent;
-import com.taltech.ecommerce.inventoryservice.exception.InventoryLimitException;
-import com.taltech.ecommerce.inventoryservice.model.Inventory;
+import com.taltech.ecommerce.inventoryservice.dto.InventoryStockDto;
+import com.taltech.ecommerce.inventoryservice.enumeration.MovementType;
 import com.taltech.ecommerce.inventoryservice.publisher.InventoryEventPublisher;
-import com.taltech.ecommerce.inventoryservice.repository.InventoryRepository;
+import com.taltech.ecommerce.sagaevents.dto.OrderItemDto;
+import com.taltech.ecommerce.sagaevents.enumeration.EventStatus;
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+import com.taltech.ecommerce.sagaevents.retry.TransientFailures;
 
-import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -24,102 +29,134 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class InventoryService {
 
-    private final InventoryRepository repository;
+    private final StockStore stockStore;
+    private final StockHoldService stockHoldService;
     private final InventoryEventPublisher eventPublisher;
 
     public void commitUpdate(OrderEvent orderEvent) {
-        List<Inventory> inventoryList = getInventories(orderEvent);
         try {
-            updateInventories("Commit", inventoryList);
-            orderEvent.getOrder().getOrderEventStatus().setInventoryStatus(EventStatus.SUCCESSFUL);
-            eventPublisher.publishDeleteChart(orderEvent);
+            stockStore.decrement(MovementType.COMMIT, orderEvent.getOrder().getOrderEventStatus().getId(),
+                orderEvent.getOrder().getOrderItems());
+            stockHoldService.hold(List.of(orderEvent));
+            eventPublisher.publishDeleteChart(orderEvent.withInventoryStatus(EventStatus.SUCCESSFUL));
         }
         catch (Exception exception) {
+            TransientFailures.rethrowIfTransient(exception);
             log.error("Updating inventory failed with exception message: {}", exception.getMessage());
-            orderEvent.getOrder().getOrderEventStatus().setInventoryStatus(EventStatus.FAILED);
-            eventPublisher.publishOrderFailed(orderEvent);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            eventPublisher.publishOrderFailed(orderEvent.withInventoryStatus(EventStatus.FAILED), true);
         }
     }
 
     public void rollbackUpdate(OrderEvent orderEvent) {
-        List<Inventory> inventoryList = getInventories(orderEvent);
         try {
-            updateInventories("Rollback", inventoryList);
-            orderEvent.getOrder().getOrderEventStatus().setInventoryStatus(EventStatus.ROLLBACK);
-            eventPublisher.publishOrderFailed(orderEvent);
+            if (stockHoldService.release(orderEvent)) {
+                stockStore.increment(MovementType.ROLLBACK, orderEvent.getOrder().getOrderEventStatus().getId(),
+                    orderEvent.getOrder().getOrderItems());
+            }
+            else {
+                log.warn("Stock hold of event '{}' was already released", orderEvent.getOrder().getOrderEventStatus().getId());
+            }
+            eventPublisher.publishOrderFailed(orderEvent.withInventoryStatus(EventStatus.ROLLBACK), false);
         }
         catch (Exception exception) {
+            TransientFailures.rethrowIfTransient(exception);
             log.error("Rollbacking inventory failed with exception message: {}", exception.getMessage());
-            orderEvent.getOrder().getOrderEventStatus().setInventoryStatus(EventStatus.ROLLBACK_FAILED);
-            eventPublisher.publishOrderFailed(orderEvent);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            eventPublisher.publishOrderFailed(orderEvent.withInventoryStatus(EventStatus.ROLLBACK_FAILED), true);
         }
     }
 
-    private List<Inventory> getInventories(OrderEvent orderEvent) {
-        List<Inventory> inventoryList = new ArrayList<>();
-        orderEvent.getOrder().getOrderItems()
-            .forEach(orderItem -> inventoryList.add(Inventory.builder()
-                .code(orderItem.getInventoryCode())
-                .quantity(orderItem.getQuantity())
-                .build())
-            );
-        return inventoryList;
-    }
-
-    private void updateInventories(String action, List<Inventory> inventoryList) {
-        List<Inventory> foundInventoryList = findByCode(action, inventoryList);
+    public void commitUpdates(List<OrderEvent> orderEvents) {
+        Map<OrderEvent, RuntimeException> failures = stockStore.decrementEach(MovementType.COMMIT, orderEvents);
+        List<OrderEvent> committedEvents = new ArrayList<>();
+        List<OrderEvent> failedEvents = new ArrayList<>();
 
-        isInStock(action, foundInventoryList);
+        orderEvents.forEach(orderEvent -> {
+            RuntimeException failure = failures.get(orderEvent);
+            if (failure == null) {
+                committedEvents.add(orderEvent.withInventoryStatus(EventStatus.SUCCESSFUL));
+            }
+            else {
+                log.error("Updating inventory for event '{}' failed with exception message: {}",
+                    orderEvent.getOrder().getOrderEventStatus().getId(), failure.getMessage());
+                failedEvents.add(orderEvent.withInventoryStatus(EventStatus.FAILED));
+            }
+        });
 
-        foundInventoryList.forEach(foundInventory -> {
-            Integer receivedQuantity = inventoryList.stream().filter(inventory -> inventory.getCode().equals(foundInventory.getCode()))
-                .map(Inventory::getQuantity)
-                .findAny()
-                .orElseThrow(EntityNotFoundException::new);
-            Integer foundQuantity = foundInventory.getQuantity();
-            int calculatedQuantity;
+        stockHoldService.hold(committedEvents);
+        eventPublisher.publishDeleteChart(committedEvents);
+        eventPublisher.publishOrderFailed(failedEvents);
+    }
 
-            if(action.equals("Rollback")){
-                calculatedQuantity = foundQuantity + receivedQuantity;
+    public void rollbackUpdates(List<OrderEvent> orderEvents) {
+        Set<String> releasedEventIds = stockHoldService.release(orderEvents);
+        List<OrderEvent> heldEvents = orderEvents.stream()
+            .filter(orderEvent -> releasedEventIds.remove(orderEvent.getOrder().getOrderEventStatus().getId()))
+            .toList();
+        Map<OrderEvent, RuntimeException> failures = stockStore.incrementEach(MovementType.ROLLBACK, heldEvents);
+        List<OrderEvent> rollbackEvents = new ArrayList<>();
+
+        orderEvents.forEach(orderEvent -> {
+            RuntimeException failure = failures.get(orderEvent);
+            if (failure == null) {
+                rollbackEvents.add(orderEvent.withInventoryStatus(EventStatus.ROLLBACK));
             }
             else {
-                calculatedQuantity = foundQuantity - receivedQuantity;
-                if (calculatedQuantity < 0) {
-                    throw new InventoryLimitException(String.format("%s - Received inventory quantity '%s' is more than found inventory quantity '%s'",
-                        action,
-                        receivedQuantity,
-                        foundQuantity));
-                }
+                log.error("Rollbacking inventory for event '{}' failed with exception message: {}",
+                    orderEvent.getOrder().getOrderEventStatus().getId(), failure.getMessage());
+                rollbackEvents.add(orderEvent.withInventoryStatus(EventStatus.ROLLBACK_FAILED));
             }
-
-            foundInventory.setQuantity(calculatedQuantity);
-            foundInventory.setUpdateDate(LocalDateTime.now());
         });
 
-        repository.saveAllAndFlush(foundInventoryList);
+        eventPublisher.publishOrderFailed(rollbackEvents);
     }
 
-    private List<Inventory> findByCode(String action, List<Inventory> receivedInventoryList) {
-        log.info("{} - Checking inventory for '{}' inventory items", action, receivedInventoryList.size());
-        List<String> codes = receivedInventoryList.stream().map(Inventory::getCode).toList();
-        List<Inventory> foundInventoryList = repository.findByCodeIn(codes);
-        if(foundInventoryList.size() != receivedInventoryList.size()) {
-            throw new EntityNotFoundException(String.format("%s - Received inventory size '%s' and found inventory size '%s' is not equal",
-                action,
-                receivedInventoryList.size(),
-                foundInventoryList.size()));
-        }
-        return foundInventoryList;
+    public void confirmHold(OrderEvent orderEvent) {
+        confirmHolds(List.of(orderEvent));
     }
 
-    private void isInStock(String action, List<Inventory> inventoryList) {
-        inventoryList.forEach(inventory -> {
-            if(inventory.getQuantity() != null && inventory.getQuantity() <= 0) {
-                throw new EntityNotFoundException(String.format("%s - Not enough quantity '%s' for inventory item code '%s'",
-                    action,
-                    inventory.getQuantity(),
-                    inventory.getCode()));
+    /**
+     * Takes the stock of holds that expired before payment completed again. When that stock was sold meanwhile,
+     * the completed order is compensated through the payment rollback instead of overselling its items.
+     */
+    public void confirmHolds(List<OrderEvent> orderEvents) {
+        Map<String, List<OrderItemDto>> releasedItems = stockHoldService.confirm(orderEvents);
+        if (releasedItems.isEmpty()) {
+            return;
+        }
+        List<OrderEvent> releasedEvents = orderEvents.stream()
+            .collect(Collectors.toMap(orderEvent -> orderEvent.getOrder().getOrderEventStatus().getId(),
+                Function.identity(), (first, second) -> first, LinkedHashMap::new))
+            .entrySet().stream()
+            .filter(entry -> releasedItems.containsKey(entry.getKey()))
+            .map(entry -> entry.getValue().withItems(releasedItems.get(entry.getKey())))
+            .toList();
+        Map<OrderEvent, RuntimeException> failures = stockStore.decrementEach(MovementType.RECLAIM, releasedEvents);
+        List<OrderEvent> failedEvents = new ArrayList<>();
+
+        releasedEvents.forEach(orderEvent -> {
+            RuntimeException failure = failures.get(orderEvent);
+            if (failure == null) {
+                log.warn("Stock hold of event '{}' expired before payment completed, took its stock again",
+                    orderEvent.getOrder().getOrderEventStatus().getId());
+            }
+            else {
+                log.error("Taking expired stock hold again for event '{}' failed with exception message: {}",
+                    orderEvent.getOrder().getOrderEventStatus().getId(), failure.getMessage());
+                failedEvents.add(orderEvent.withInventoryStatus(EventStatus.FAILED));
             }
         });
+
+        eventPublisher.publishRollbackPayment(failedEvents);
+    }
+
+    @Transactional(readOnly = true)
+    public InventoryStockDto findStock(String code) {
+        return stockStore.findStock(code);
+    }
+
+    public InventoryStockDto rebalanceShards(String code, int shardCount) {
+        return stockStore.rebalance(code, shardCount);
     }
 }
@@ -0,0 +1,121 @@
+package com.taltech.ecommerce.inventoryservice.service;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.taltech.ecommerce.inventoryservice.dto.InventoryStockDto;
+import com.taltech.ecommerce.inventoryservice.enumeration.MovementType;
+import com.taltech.ecommerce.inventoryservice.exception.InventoryLimitException;
+import com.taltech.ecommerce.inventoryservice.repository.InventoryMovementRepository;
+import com.taltech.ecommerce.sagaevents.dto.OrderItemDto;
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Records every stock change as a row of the append-only inventory_movement ledger instead of updating the
+ * inventory row. The stock of a code is its snapshot quantity in the inventory row plus its movements not yet
+ * compacted by the {@link InventoryLedgerCompactor}. Movements of a code are serialized by an advisory lock taken
+ * in code order, and a movement type is recorded once per event and code, so replayed events change nothing.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.stock.store", havingValue = "ledger")
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerStockStore implements StockStore {
+
+    static final int LOCK_NAMESPACE = 0x1A7E;
+
+    private final InventoryMovementRepository movementRepository;
+
+    @Override
+    public void decrement(MovementType movementType, String orderEventId, List<OrderItemDto> orderItems) {
+        record(movementType, orderEventId, orderItems, -1);
+    }
+
+    @Override
+    public void increment(MovementType movementType, String orderEventId, List<OrderItemDto> orderItems) {
+        record(movementType, orderEventId, orderItems, 1);
+    }
+
+    @Override
+    public Map<OrderEvent, RuntimeException> decrementEach(MovementType movementType, List<OrderEvent> orderEvents) {
+        return recordEach(movementType, orderEvents, -1);
+    }
+
+    @Override
+    public Map<OrderEvent, RuntimeException> incrementEach(MovementType movementType, List<OrderEvent> orderEvents) {
+        return recordEach(movementType, orderEvents, 1);
+    }
+
+    @Override
+    public InventoryStockDto findStock(String code) {
+        Long quantity = movementRepository.findAvailableQuantity(code);
+        if (quantity == null) {
+            throw new EntityNotFoundException(String.format("Find - Inventory with code '%s' not found", code));
+        }
+        return new InventoryStockDto(code, quantity, Math.toIntExact(quantity), List.of());
+    }
+
+    @Override
+    public InventoryStockDto rebalance(String code, int shardCount) {
+        throw new IllegalArgumentException(String.format("Rebalance - Inventory code '%s' can't be sharded, the ledger stock store keeps no shards",
+            code));
+    }
+
+    /**
+     * Locks the codes of the whole batch in code order first, so batches sharing codes never deadlock.
+     */
+    private Map<OrderEvent, RuntimeException> recordEach(MovementType movementType, List<OrderEvent> orderEvents, int sign) {
+        orderEvents.stream()
+            .flatMap(orderEvent -> orderEvent.getOrder().getOrderItems().stream())
+            .map(OrderItemDto::getInventoryCode)
+            .distinct()
+            .sorted()
+            .forEach(code -> movementRepository.lockCode(LOCK_NAMESPACE, code));
+
+        Map<OrderEvent, RuntimeException> failures = new IdentityHashMap<>();
+        orderEvents.forEach(orderEvent -> {
+            try {
+                record(movementType, orderEvent.getOrder().getOrderEventStatus().getId(), orderEvent.getOrder().getOrderItems(), sign);
+            }
+            catch (InventoryLimitException | EntityNotFoundException exception) {
+                failures.put(orderEvent, exception);
+            }
+        });
+        return failures;
+    }
+
+    private void record(MovementType movementType, String orderEventId, List<OrderItemDto> orderItems, int sign) {
+        String action = movementType.getAction();
+        Map<String, Integer> deltas = new TreeMap<>();
+        orderItems.forEach(orderItem -> deltas.merge(orderItem.getInventoryCode(), sign * orderItem.getQuantity(), Integer::sum));
+        deltas.keySet().forEach(code -> movementRepository.lockCode(LOCK_NAMESPACE, code));
+
+        if (movementRepository.existsByOrderEventIdAndMovementType(orderEventId, movementType)) {
+            log.info("{} - Movements of event '{}' are already recorded", action, orderEventId);
+            return;
+        }
+        deltas.forEach((code, delta) -> {
+            Long availableQuantity = movementRepository.findAvailableQuantity(code);
+            if (availableQuantity == null) {
+                throw new EntityNotFoundException(String.format("%s - Inventory with code '%s' not found", action, code));
+            }
+            if (availableQuantity + delta < 0) {
+                throw new InventoryLimitException(String.format("%s - Received inventory quantity '%s' is more than found inventory quantity '%s'",
+                    action,
+                    -delta,
+                    availableQuantity));
+            }
+        });
+        movementRepository.insertMovements(orderEventId, movementType.ordinal(),
+            deltas.keySet().toArray(String[]::new), deltas.values().toArray(Integer[]::new));
+    }
+}
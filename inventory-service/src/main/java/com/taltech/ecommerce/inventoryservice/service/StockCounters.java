@@ -0,0 +1,133 @@
+package com.taltech.ecommerce.inventoryservice.service;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free stock counters of one inventory code: slot 0 is the inventory row, slots 1 to N are its shards. Every
+ * slot packs the change version into the upper and the quantity into the lower half of a long, so a change is a
+ * single compare-and-set that can never take the quantity below zero. A rebalance seals every slot; callers that
+ * find sealed counters retry against the counters that replace them.
+ */
+final class StockCounters {
+
+    private static final long QUANTITY_MASK = 0xFFFFFFFFL;
+    private static final long SEALED = -1L;
+
+    private final String code;
+    private final AtomicLong[] slots;
+    private volatile boolean sealed;
+
+    StockCounters(String code, int[] quantities, int[] versions) {
+        this.code = code;
+        this.slots = new AtomicLong[quantities.length];
+        for (int slot = 0; slot < quantities.length; slot++) {
+            slots[slot] = new AtomicLong(pack(versions[slot], quantities[slot]));
+        }
+    }
+
+    int slotCount() {
+        return slots.length;
+    }
+
+    boolean isSealed() {
+        return sealed;
+    }
+
+    /**
+     * Returns the quantity of the slot, or -1 while a rebalance seals it.
+     */
+    int quantity(int slot) {
+        long value = slots[slot].get();
+        return value == SEALED ? -1 : quantity(value);
+    }
+
+    /**
+     * Takes the quantity from a single slot, trying a random shard first, or else spread over several slots.
+     * Returns how much was taken: less than asked when there is not enough stock or the counters got sealed, and
+     * the caller is responsible for putting a partly taken quantity back.
+     */
+    int take(int quantity, List<StockJournal.Entry> entries) {
+        int start = slots.length == 1 ? 0 : ThreadLocalRandom.current().nextInt(1, slots.length);
+        for (int offset = 0; offset < slots.length; offset++) {
+            int taken = change((start + offset) % slots.length, -quantity, false, entries);
+            if (taken != 0) {
+                return Math.max(taken, 0);
+            }
+        }
+        int remaining = quantity;
+        for (int offset = 0; offset < slots.length && remaining > 0; offset++) {
+            int taken = change((start + offset) % slots.length, -remaining, true, entries);
+            if (taken < 0) {
+                break;
+            }
+            remaining -= taken;
+        }
+        return quantity - remaining;
+    }
+
+    /**
+     * Puts the quantity into a random shard, or the inventory row of an unsharded code. Returns false when the
+     * counters got sealed or the slot would overflow.
+     */
+    boolean give(int quantity, List<StockJournal.Entry> entries) {
+        int slot = slots.length == 1 ? 0 : ThreadLocalRandom.current().nextInt(1, slots.length);
+        return change(slot, quantity, false, entries) == quantity;
+    }
+
+    /**
+     * Seals every slot and returns the quantities they held, followed by the highest version of any slot.
+     */
+    long[] seal() {
+        sealed = true;
+        long[] sealedValues = new long[slots.length + 1];
+        int maxVersion = 0;
+        for (int slot = 0; slot < slots.length; slot++) {
+            long value = slots[slot].getAndSet(SEALED);
+            sealedValues[slot] = quantity(value);
+            maxVersion = Math.max(maxVersion, version(value));
+        }
+        sealedValues[slots.length] = maxVersion;
+        return sealedValues;
+    }
+
+    /**
+     * Changes the slot by {@code delta}, or by as much of a negative delta as the slot holds when {@code partial}.
+     * Returns the absolute quantity changed, 0 when the change does not fit the slot, or -1 when it is sealed.
+     */
+    private int change(int slot, int delta, boolean partial, List<StockJournal.Entry> entries) {
+        AtomicLong counter = slots[slot];
+        while (true) {
+            long current = counter.get();
+            if (current == SEALED) {
+                return -1;
+            }
+            int quantity = quantity(current);
+            long calculatedQuantity = (long) quantity + delta;
+            if (calculatedQuantity < 0 && partial) {
+                calculatedQuantity = 0;
+            }
+            if (calculatedQuantity < 0 || calculatedQuantity > Integer.MAX_VALUE || calculatedQuantity == quantity) {
+                return 0;
+            }
+            int version = version(current) + 1;
+            if (counter.compareAndSet(current, pack(version, (int) calculatedQuantity))) {
+                entries.add(new StockJournal.Entry(code, slot, version, (int) calculatedQuantity));
+                return (int) Math.abs(calculatedQuantity - quantity);
+            }
+        }
+    }
+
+    private static long pack(int version, int quantity) {
+        return ((long) version << 32) | (quantity & QUANTITY_MASK);
+    }
+
+    private static int version(long value) {
+        return (int) (value >>> 32);
+    }
+
+    private static int quantity(long value) {
+        return (int) value;
+    }
+}
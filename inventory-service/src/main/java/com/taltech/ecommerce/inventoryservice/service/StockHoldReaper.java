@@ -0,0 +1,102 @@
+package com.taltech.ecommerce.inventoryservice.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.taltech.ecommerce.inventoryservice.enumeration.MovementType;
+import com.taltech.ecommerce.inventoryservice.exception.InventoryLimitException;
+import com.taltech.ecommerce.inventoryservice.model.StockHold;
+import com.taltech.ecommerce.inventoryservice.repository.StockHoldRepository;
+import com.taltech.ecommerce.sagaevents.dto.OrderItemDto;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gives back the stock of holds that were neither confirmed nor released before they expired, for example
+ * of sagas stuck after inventory. Expired holds are found through the expire date index, oldest first, and
+ * locked with {@code skip locked} so several instances can reap side by side.
+ * <p>
+ * Reaped holds are only marked released, because the saga may still complete and take the stock again (see
+ * {@link StockHoldService#confirm}). They are deleted once released for longer than the retention.
+ */
+@Component
+@Slf4j
+public class StockHoldReaper {
+
+    private final StockHoldRepository repository;
+    private final StockStore stockStore;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration releasedRetention;
+
+    public StockHoldReaper(StockHoldRepository repository,
+                           StockStore stockStore,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${inventory.hold.reaper.batch-size}") int batchSize,
+                           @Value("${inventory.hold.released-retention}") Duration releasedRetention) {
+        this.repository = repository;
+        this.stockStore = stockStore;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.releasedRetention = releasedRetention;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.hold.reaper.interval}")
+    public void reap() {
+        try {
+            Integer reapedCount;
+            do {
+                reapedCount = transactionTemplate.execute(status -> reapBatch());
+            } while (reapedCount != null && reapedCount == batchSize);
+
+            LocalDateTime releasedBefore = LocalDateTime.now().minus(releasedRetention);
+            Integer deletedCount;
+            do {
+                deletedCount = transactionTemplate.execute(status ->
+                    repository.deleteReleasedBatch(releasedBefore, batchSize));
+            } while (deletedCount != null && deletedCount == batchSize);
+        }
+        catch (Exception exception) {
+            log.error("Releasing expired stock holds failed with exception message: {}", exception.getMessage());
+        }
+    }
+
+    private int reapBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<StockHold> stockHolds = repository.findExpiredBatch(now, batchSize);
+        if (stockHolds.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, List<OrderItemDto>> orderItemsByEventId = stockHolds.stream()
+            .collect(Collectors.groupingBy(StockHold::getOrderEventId, LinkedHashMap::new,
+                Collectors.mapping(stockHold -> OrderItemDto.builder()
+                    .inventoryCode(stockHold.getInventoryCode())
+                    .quantity(stockHold.getQuantity())
+                    .build(), Collectors.toList())));
+
+        orderItemsByEventId.forEach((orderEventId, orderItems) -> {
+            try {
+                stockStore.increment(MovementType.EXPIRE, orderEventId, orderItems);
+                log.warn("Stock hold of event '{}' expired, released '{}' inventory items", orderEventId, orderItems.size());
+            }
+            catch (InventoryLimitException | EntityNotFoundException exception) {
+                log.error("Releasing expired stock hold of event '{}' failed with exception message: {}",
+                    orderEventId, exception.getMessage());
+            }
+        });
+
+        repository.markReleased(stockHolds.stream().map(StockHold::getId).toList(), now);
+        return stockHolds.size();
+    }
+}
@@ -0,0 +1,116 @@
+package com.taltech.ecommerce.inventoryservice.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.taltech.ecommerce.inventoryservice.model.StockHold;
+import com.taltech.ecommerce.inventoryservice.repository.StockHoldRepository;
+import com.taltech.ecommerce.sagaevents.dto.OrderItemDto;
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stock taken by an order stays on hold until payment completes. Confirming a hold keeps the stock taken,
+ * releasing it (by a rollback or by the {@link StockHoldReaper} once the hold expired) gives the stock back.
+ * A hold is released at most once, which callers check before putting stock back. Holds released by the reaper
+ * are kept for a while, so a payment that completes late takes their stock again instead of overselling it.
+ */
+@Service
+@Transactional
+@Slf4j
+public class StockHoldService {
+
+    private final StockHoldRepository repository;
+    private final Duration holdTtl;
+
+    public StockHoldService(StockHoldRepository repository,
+                            @Value("${inventory.hold.ttl}") Duration holdTtl) {
+        this.repository = repository;
+        this.holdTtl = holdTtl;
+    }
+
+    public void hold(List<OrderEvent> orderEvents) {
+        LocalDateTime insertDate = LocalDateTime.now();
+        LocalDateTime expireDate = insertDate.plus(holdTtl);
+        List<StockHold> stockHolds = orderEvents.stream()
+            .flatMap(orderEvent -> orderEvent.getOrder().getOrderItems().stream()
+                .map(orderItem -> StockHold.builder()
+                    .orderEventId(orderEvent.getOrder().getOrderEventStatus().getId())
+                    .inventoryCode(orderItem.getInventoryCode())
+                    .quantity(orderItem.getQuantity())
+                    .expireDate(expireDate)
+                    .insertDate(insertDate)
+                    .build()))
+            .toList();
+        repository.saveAll(stockHolds);
+    }
+
+    public boolean release(OrderEvent orderEvent) {
+        return !release(List.of(orderEvent)).isEmpty();
+    }
+
+    /**
+     * Returns the event ids whose holds were released by this call. The returned set is modifiable.
+     */
+    public Set<String> release(List<OrderEvent> orderEvents) {
+        List<String> orderEventIds = eventIds(orderEvents);
+        if (orderEventIds.isEmpty()) {
+            return new HashSet<>();
+        }
+        List<StockHold> stockHolds = repository.lockByOrderEventIds(orderEventIds);
+        Set<String> heldEventIds = stockHolds.stream()
+            .filter(stockHold -> stockHold.getReleaseDate() == null)
+            .map(StockHold::getOrderEventId)
+            .collect(Collectors.toCollection(HashSet::new));
+        deleteAll(stockHolds);
+        return heldEventIds;
+    }
+
+    /**
+     * Confirms the holds of the events and returns, by event id, the items of holds the {@link StockHoldReaper}
+     * released before payment completed. Their stock was given back, so the caller has to take it again.
+     */
+    public Map<String, List<OrderItemDto>> confirm(List<OrderEvent> orderEvents) {
+        List<String> orderEventIds = eventIds(orderEvents);
+        if (orderEventIds.isEmpty()) {
+            return Map.of();
+        }
+        List<StockHold> stockHolds = repository.lockByOrderEventIds(orderEventIds);
+        Set<String> foundEventIds = stockHolds.stream().map(StockHold::getOrderEventId).collect(Collectors.toSet());
+        orderEventIds.stream()
+            .filter(orderEventId -> !foundEventIds.contains(orderEventId))
+            .forEach(orderEventId ->
+                log.error("Stock hold of event '{}' not found when payment completed", orderEventId));
+        deleteAll(stockHolds);
+        return stockHolds.stream()
+            .filter(stockHold -> stockHold.getReleaseDate() != null)
+            .collect(Collectors.groupingBy(StockHold::getOrderEventId,
+                Collectors.mapping(stockHold -> OrderItemDto.builder()
+                    .inventoryCode(stockHold.getInventoryCode())
+                    .quantity(stockHold.getQuantity())
+                    .build(), Collectors.toList())));
+    }
+
+    private void deleteAll(List<StockHold> stockHolds) {
+        if (!stockHolds.isEmpty()) {
+            repository.deleteAllByIdInBatch(stockHolds.stream().map(StockHold::getId).toList());
+        }
+    }
+
+    private static List<String> eventIds(List<OrderEvent> orderEvents) {
+        return orderEvents.stream()
+            .map(orderEvent -> orderEvent.getOrder().getOrderEventStatus().getId())
+            .distinct()
+            .toList();
+    }
+}
@@ -0,0 +1,248 @@
+package com.taltech.ecommerce.inventoryservice.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only journal of stock changes, split into numbered segment files. Every entry holds the quantity of a
+ * stock slot (the inventory row or one shard of a code) after the change and the version of that change, so
+ * replaying keeps the newest entry of each slot no matter in which order concurrent changes were appended. With fsync enabled, callers appending at the same
+ * time share a single {@link FileChannel#force}.
+ */
+@Slf4j
+class StockJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "stock-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final boolean fsync;
+    private final Object syncLock = new Object();
+    private FileChannel channel;
+    private long segment;
+    private long writtenBytes;
+    private long syncedBytes;
+
+    record Entry(String code, int slot, int version, int quantity) {
+
+        Slot key() {
+            return new Slot(code, slot);
+        }
+    }
+
+    record Slot(String code, int index) {
+    }
+
+    StockJournal(Path directory, boolean fsync) {
+        this.directory = directory;
+        this.fsync = fsync;
+        try {
+            Files.createDirectories(directory);
+            this.segment = segments().stream().mapToLong(StockJournal::segmentNumber).max().orElse(0) + 1;
+            this.channel = open(segment);
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(String.format("Stock journal '%s' could not be opened", directory), exception);
+        }
+    }
+
+    /**
+     * Returns the newest entry of every slot found in the journal. Reading a segment stops at the first torn
+     * or corrupt record, which can only be the tail of a write interrupted by a crash.
+     */
+    Map<Slot, Entry> replay() {
+        Map<Slot, Entry> entries = new HashMap<>();
+        try {
+            for (Path segmentPath : segments()) {
+                try (DataInputStream input = new DataInputStream(Files.newInputStream(segmentPath))) {
+                    readSegment(segmentPath, input, entries);
+                }
+            }
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(String.format("Stock journal '%s' could not be replayed", directory), exception);
+        }
+        return entries;
+    }
+
+    void append(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        ByteBuffer record = encode(entries);
+        long position;
+        try {
+            synchronized (this) {
+                while (record.hasRemaining()) {
+                    channel.write(record);
+                }
+                writtenBytes += record.limit();
+                position = writtenBytes;
+            }
+            if (fsync) {
+                sync(position);
+            }
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException("Stock journal could not be written", exception);
+        }
+    }
+
+    /**
+     * Starts a new segment and returns its number. Entries of older segments can be deleted once every change
+     * they hold is stored in the inventory table.
+     */
+    long rotate() {
+        synchronized (syncLock) {
+            synchronized (this) {
+                try {
+                    channel.force(false);
+                    channel.close();
+                    syncedBytes = writtenBytes;
+                    segment++;
+                    channel = open(segment);
+                    return segment;
+                }
+                catch (IOException exception) {
+                    throw new UncheckedIOException("Stock journal segment could not be rotated", exception);
+                }
+            }
+        }
+    }
+
+    void deleteSegmentsBefore(long segmentNumber) {
+        try {
+            for (Path segmentPath : segments()) {
+                if (segmentNumber(segmentPath) < segmentNumber) {
+                    Files.deleteIfExists(segmentPath);
+                }
+            }
+        }
+        catch (IOException exception) {
+            log.error("Deleting stock journal segments failed with exception message: {}", exception.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (syncLock) {
+            synchronized (this) {
+                channel.force(false);
+                channel.close();
+            }
+        }
+    }
+
+    private void sync(long position) throws IOException {
+        synchronized (syncLock) {
+            if (syncedBytes >= position) {
+                return;
+            }
+            FileChannel syncedChannel;
+            long syncedPosition;
+            synchronized (this) {
+                syncedChannel = channel;
+                syncedPosition = writtenBytes;
+            }
+            syncedChannel.force(false);
+            syncedBytes = syncedPosition;
+        }
+    }
+
+    private static ByteBuffer encode(List<Entry> entries) {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(entries.size() * 32);
+        try (DataOutputStream output = new DataOutputStream(payload)) {
+            output.writeInt(entries.size());
+            for (Entry entry : entries) {
+                output.writeUTF(entry.code());
+                output.writeShort(entry.slot());
+                output.writeInt(entry.version());
+                output.writeInt(entry.quantity());
+            }
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException("Stock journal entries could not be encoded", exception);
+        }
+        byte[] bytes = payload.toByteArray();
+        CRC32 checksum = new CRC32();
+        checksum.update(bytes);
+        return ByteBuffer.allocate(Integer.BYTES + bytes.length + Long.BYTES)
+            .putInt(bytes.length)
+            .put(bytes)
+            .putLong(checksum.getValue())
+            .flip();
+    }
+
+    private static void readSegment(Path segmentPath, DataInputStream input, Map<Slot, Entry> entries) throws IOException {
+        while (true) {
+            byte[] bytes;
+            try {
+                int length = input.readInt();
+                if (length <= 0) {
+                    return;
+                }
+                bytes = input.readNBytes(length);
+                if (bytes.length < length) {
+                    return;
+                }
+                CRC32 checksum = new CRC32();
+                checksum.update(bytes);
+                if (input.readLong() != checksum.getValue()) {
+                    log.warn("Stock journal segment '{}' has a corrupt record, ignoring the rest of it", segmentPath);
+                    return;
+                }
+            }
+            catch (EOFException exception) {
+                return;
+            }
+            readEntries(bytes, entries);
+        }
+    }
+
+    private static void readEntries(byte[] bytes, Map<Slot, Entry> entries) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes));
+        int count = input.readInt();
+        for (int index = 0; index < count; index++) {
+            Entry entry = new Entry(input.readUTF(), input.readUnsignedShort(), input.readInt(), input.readInt());
+            entries.merge(entry.key(), entry, (current, next) -> Integer.compareUnsigned(next.version(), current.version()) > 0 ? next : current);
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths
+                .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                .sorted((first, second) -> Long.compare(segmentNumber(first), segmentNumber(second)))
+                .toList();
+        }
+    }
+
+    private FileChannel open(long segmentNumber) throws IOException {
+        return FileChannel.open(directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segmentNumber, SEGMENT_SUFFIX)),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static long segmentNumber(Path segmentPath) {
+        String fileName = segmentPath.getFileName().toString();
+        return Long.parseLong(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,45 @@
+package com.taltech.ecommerce.inventoryservice.service;
+
+import java.util.List;
+
+import com.taltech.ecommerce.inventoryservice.dto.InventoryStockDto;
+
+final class StockShards {
+
+    static final int MAX_SHARD_COUNT = 1024;
+
+    private StockShards() {
+    }
+
+    /**
+     * Returns the quantity of the inventory row followed by the quantity of every shard.
+     */
+    static int[] distribute(String code, long total, int shardCount) {
+        if (shardCount < 0 || shardCount > MAX_SHARD_COUNT) {
+            throw new IllegalArgumentException(String.format("Rebalance - Shard count '%s' of inventory code '%s' must be between 0 and %s",
+                shardCount,
+                code,
+                MAX_SHARD_COUNT));
+        }
+        if (total > (long) Integer.MAX_VALUE * Math.max(shardCount, 1)) {
+            throw new IllegalArgumentException(String.format("Rebalance - Quantity '%s' of inventory code '%s' does not fit in '%s' shards",
+                total,
+                code,
+                shardCount));
+        }
+        int[] quantities = new int[shardCount + 1];
+        if (shardCount == 0) {
+            quantities[0] = Math.toIntExact(total);
+            return quantities;
+        }
+        for (int shardIndex = 0; shardIndex < shardCount; shardIndex++) {
+            quantities[shardIndex + 1] = Math.toIntExact(total / shardCount + (shardIndex < total % shardCount ? 1 : 0));
+        }
+        return quantities;
+    }
+
+    static InventoryStockDto toStockDto(String code, int unshardedQuantity, List<Integer> shardQuantities) {
+        long quantity = unshardedQuantity + shardQuantities.stream().mapToLong(Integer::longValue).sum();
+        return new InventoryStockDto(code, quantity, unshardedQuantity, shardQuantities);
+    }
+}
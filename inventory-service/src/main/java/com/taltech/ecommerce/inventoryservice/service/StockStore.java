@@ -0,0 +1,43 @@
+package com.taltech.ecommerce.inventoryservice.service;
+
+import java.util.List;
+import java.util.Map;
+
+import com.taltech.ecommerce.inventoryservice.dto.InventoryStockDto;
+import com.taltech.ecommerce.inventoryservice.enumeration.MovementType;
+import com.taltech.ecommerce.sagaevents.dto.OrderItemDto;
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+
+/**
+ * Keeps the stock of every inventory code. The items of one order are changed all together or not at all, and
+ * a failed change throws {@link jakarta.persistence.EntityNotFoundException} for an unknown code or
+ * {@link com.taltech.ecommerce.inventoryservice.exception.InventoryLimitException} when there is not enough stock.
+ * <p>
+ * The stock of a hot code can be split over shards, so concurrent orders take it from different counters. A
+ * decrement tries a random shard first and falls back to the others, and the stock of a code is the sum of its
+ * inventory row and all of its shards.
+ */
+public interface StockStore {
+
+    void decrement(MovementType movementType, String orderEventId, List<OrderItemDto> orderItems);
+
+    void increment(MovementType movementType, String orderEventId, List<OrderItemDto> orderItems);
+
+    /**
+     * Decrements the items of every order separately and returns the failure of each rejected order.
+     */
+    Map<OrderEvent, RuntimeException> decrementEach(MovementType movementType, List<OrderEvent> orderEvents);
+
+    /**
+     * Increments the items of every order separately and returns the failure of each rejected order.
+     */
+    Map<OrderEvent, RuntimeException> incrementEach(MovementType movementType, List<OrderEvent> orderEvents);
+
+    InventoryStockDto findStock(String code);
+
+    /**
+     * Spreads the whole stock of the code evenly over {@code shardCount} shards, or moves it back to the
+     * inventory row when {@code shardCount} is 0.
+     */
+    InventoryStockDto rebalance(String code, int shardCount);
+}
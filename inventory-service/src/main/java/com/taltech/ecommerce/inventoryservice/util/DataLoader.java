@@ -1,23 +1,43 @@
 package com.taltech.ecommerce.inventoryservice.util;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
+import com.taltech.ecommerce.inventoryservice.enumeration.CatalogFormat;
 import com.taltech.ecommerce.inventoryservice.model.Inventory;
 import com.taltech.ecommerce.inventoryservice.repository.InventoryRepository;
-
-import lombok.RequiredArgsConstructor;
+import com.taltech.ecommerce.inventoryservice.service.InventoryImportService;
 
 @Component
-@RequiredArgsConstructor
 public class DataLoader implements CommandLineRunner {
     private final InventoryRepository inventoryRepository;
+    private final InventoryImportService importService;
+    private final String catalogFile;
+
+    public DataLoader(InventoryRepository inventoryRepository,
+                      InventoryImportService importService,
+                      @Value("${inventory.import.file}") String catalogFile) {
+        this.inventoryRepository = inventoryRepository;
+        this.importService = importService;
+        this.catalogFile = catalogFile;
+    }
+
     @Override
-    public void run(String... args) {
-        if (inventoryRepository.count() < 2) {
+    public void run(String... args) throws IOException {
+        if (!catalogFile.isBlank()) {
+            try (InputStream input = Files.newInputStream(Path.of(catalogFile))) {
+                importService.importCatalog(input, CatalogFormat.fromFileName(catalogFile));
+            }
+        }
+        else if (inventoryRepository.count() < 2) {
             Inventory inventory = new Inventory();
             inventory.setCode("iphone_13");
             inventory.setName("Iphone 13");
@@ -0,0 +1,22 @@
+package com.taltech.ecommerce.orderservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class OrderIntakeConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor orderIntakeExecutor(@Value("${order.intake.pool-size}") int poolSize,
+                                                      @Value("${order.intake.queue-capacity}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("order-intake-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
@@ -1,19 +1,33 @@
 package com.taltech.ecommerce.orderservice.controller;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
-import com.taltech.ecommerce.orderservice.dto.OrderDto;
+import com.taltech.ecommerce.orderservice.dto.OrderBatchResultDto;
 import com.taltech.ecommerce.orderservice.mapper.OrderMapper;
 import com.taltech.ecommerce.orderservice.model.Order;
-import com.taltech.ecommerce.orderservice.service.OrderService;
+import com.taltech.ecommerce.orderservice.service.OrderIntakeService;
+import com.taltech.ecommerce.sagaevents.dto.OrderDto;
+import com.taltech.ecommerce.sagaevents.dto.OrderEventStatusDto;
 
+import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/api/order")
@@ -21,15 +35,67 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class OrderController {
 
-    private final OrderService service;
+    private final OrderIntakeService intakeService;
     private final OrderMapper mapper;
 
+    @Value("${order.intake.async}")
+    private boolean asyncIntake;
+
     @PostMapping
-    @ResponseStatus(HttpStatus.OK)
-    public void placeOrder(@RequestBody OrderDto orderDto) {
+    public Mono<ResponseEntity<OrderEventStatusDto>> placeOrder(@RequestBody OrderDto orderDto) {
         log.info("Order request received for userId '{}'", orderDto.getUserId());
 
         Order orderModel = mapper.toModel(orderDto);
-        service.placeOrder(orderModel);
+        if (asyncIntake) {
+            return Mono.fromSupplier(() -> ResponseEntity.accepted()
+                .body(toEventStatusDto(intakeService.acceptOrder(orderModel))));
+        }
+
+        return intakeService.placeOrder(orderModel)
+            .map(placedOrder -> ResponseEntity.ok(toEventStatusDto(placedOrder.getOrderEventStatus().getId())));
+    }
+
+    @PostMapping("/batch")
+    public Mono<List<OrderBatchResultDto>> placeOrders(@RequestBody List<OrderDto> orderDtos) {
+        log.info("Batch order request received for '{}' orders", orderDtos.size());
+
+        List<Order> orderModels = orderDtos.stream().map(mapper::toModel).toList();
+        return intakeService.placeOrders(orderModels);
+    }
+
+    @GetMapping("/{eventId}")
+    public Mono<ResponseEntity<OrderDto>> findOrder(@PathVariable("eventId") String eventId) {
+        log.info("Order status request received for eventId '{}'", eventId);
+
+        if (intakeService.isPending(eventId)) {
+            OrderDto pendingOrder = OrderDto.builder().orderEventStatus(toEventStatusDto(eventId)).build();
+            return Mono.just(ResponseEntity.accepted().body(pendingOrder));
+        }
+        Optional<String> rejectionReason = intakeService.findRejectionReason(eventId);
+        if (rejectionReason.isPresent()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, rejectionReason.get()));
+        }
+        return intakeService.findOrder(eventId)
+            .map(ResponseEntity::ok);
+    }
+
+    @ExceptionHandler(EntityNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public void handleNotFound(EntityNotFoundException exception) {
+        log.info("Order request rejected with message: {}", exception.getMessage());
+    }
+
+    /**
+     * Covers the intake limit and the persistence executor rejecting work, which Reactor surfaces as a plain
+     * {@link RejectedExecutionException}.
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public void handleIntakeFull(RejectedExecutionException exception) {
+        log.warn("Order intake queue is full, rejecting request: {}", exception.getMessage());
+    }
+
+    private static OrderEventStatusDto toEventStatusDto(String eventId) {
+        return OrderEventStatusDto.builder().id(eventId).build();
     }
 }
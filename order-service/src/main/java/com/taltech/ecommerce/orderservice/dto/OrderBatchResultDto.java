@@ -0,0 +1,15 @@
+package com.taltech.ecommerce.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchResultDto {
+
+    private String eventId;
+    private Long userId;
+    private String rejectionReason;
+}
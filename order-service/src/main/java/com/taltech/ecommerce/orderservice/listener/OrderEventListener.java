@@ -3,8 +3,8 @@ package com.taltech.ecommerce.orderservice.listener;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
-import com.taltech.ecommerce.orderservice.event.OrderEvent;
 import com.taltech.ecommerce.orderservice.service.OrderService;
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
 
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
@@ -2,8 +2,8 @@ package com.taltech.ecommerce.orderservice.mapper;
 
 import org.mapstruct.Mapper;
 
-import com.taltech.ecommerce.orderservice.dto.OrderDto;
 import com.taltech.ecommerce.orderservice.model.Order;
+import com.taltech.ecommerce.sagaevents.dto.OrderDto;
 
 @Mapper(componentModel = "spring")
 public interface OrderMapper {
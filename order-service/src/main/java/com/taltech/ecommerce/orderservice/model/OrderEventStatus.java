@@ -1,6 +1,6 @@
 package com.taltech.ecommerce.orderservice.model;
 
-import com.taltech.ecommerce.orderservice.enumeration.EventStatus;
+import com.taltech.ecommerce.sagaevents.enumeration.EventStatus;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -1,12 +1,11 @@
 package com.taltech.ecommerce.orderservice.publisher;
 
-import java.util.concurrent.CompletableFuture;
+import java.util.List;
 
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
-import com.taltech.ecommerce.orderservice.event.OrderEvent;
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+import com.taltech.ecommerce.sagaevents.outbox.OutboxWriter;
 
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
@@ -18,19 +17,20 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class OrderEventPublisher {
 
-    private final KafkaTemplate<String, OrderEvent> kafkaTemplate;
+    private final OutboxWriter outboxWriter;
     private final ObservationRegistry observationRegistry;
 
     public void publishUpdateInventory(OrderEvent orderEvent) {
         log.info("Publishing order event '{}' to 'updateInventoryTopic'", orderEvent.getOrder().getOrderEventStatus().getId());
 
-        try {
-            Observation.createNotStarted("update-inventory-sent", this.observationRegistry).observe(() -> {
-                CompletableFuture<SendResult<String, OrderEvent>> future = kafkaTemplate.send("updateInventoryTopic", orderEvent);
-                return future.handle((result, throwable) -> CompletableFuture.completedFuture(result));
-            });
-        } catch (Exception exception) {
-            log.error("Exception occurred while sending message to kafka, exception message: {}", exception.getMessage());
-        }
+        Observation.createNotStarted("update-inventory-outboxed", this.observationRegistry)
+            .observe(() -> outboxWriter.write("updateInventoryTopic", orderEvent));
+    }
+
+    public void publishUpdateInventory(List<OrderEvent> orderEvents) {
+        log.info("Publishing '{}' order events to 'updateInventoryTopic'", orderEvents.size());
+
+        Observation.createNotStarted("update-inventory-outboxed", this.observationRegistry)
+            .observe(() -> outboxWriter.writeAll("updateInventoryTopic", orderEvents));
     }
 }
@@ -0,0 +1,133 @@
+package com.taltech.ecommerce.orderservice.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import com.taltech.ecommerce.orderservice.dto.OrderBatchResultDto;
+import com.taltech.ecommerce.orderservice.model.Order;
+import com.taltech.ecommerce.sagaevents.dto.OrderDto;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Service
+@Slf4j
+public class OrderIntakeService {
+
+    private final OrderService orderService;
+    private final UserValidationService userValidationService;
+    private final Scheduler persistenceScheduler;
+    private final int maxPendingOrders;
+    private final Semaphore pendingOrderPermits;
+    private final Set<String> pendingOrders = ConcurrentHashMap.newKeySet();
+    private final Map<String, String> rejectedOrders;
+
+    public OrderIntakeService(OrderService orderService,
+                              UserValidationService userValidationService,
+                              ThreadPoolTaskExecutor orderIntakeExecutor,
+                              @Value("${order.intake.max-pending}") int maxPendingOrders,
+                              @Value("${order.intake.rejected-history-size}") int rejectedHistorySize) {
+        this.orderService = orderService;
+        this.userValidationService = userValidationService;
+        this.persistenceScheduler = Schedulers.fromExecutor(orderIntakeExecutor);
+        this.maxPendingOrders = maxPendingOrders;
+        this.pendingOrderPermits = new Semaphore(maxPendingOrders);
+        this.rejectedOrders = Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > rejectedHistorySize;
+            }
+        });
+    }
+
+    public Mono<Order> placeOrder(Order order) {
+        return placeOrder(order, UUID.randomUUID().toString());
+    }
+
+    public Mono<List<OrderBatchResultDto>> placeOrders(List<Order> orders) {
+        Set<Long> userIds = orders.stream().map(Order::getUserId).collect(Collectors.toSet());
+        return userValidationService.findUnknownUsers(userIds)
+            .flatMap(unknownUsers -> Mono.fromCallable(() -> saveValidOrders(orders, unknownUsers))
+                .subscribeOn(persistenceScheduler));
+    }
+
+    public String acceptOrder(Order order) {
+        if (!pendingOrderPermits.tryAcquire()) {
+            throw new TaskRejectedException(String.format("Order intake already has '%s' pending orders", maxPendingOrders));
+        }
+        String eventId = UUID.randomUUID().toString();
+        pendingOrders.add(eventId);
+
+        placeOrder(order, eventId)
+            .doFinally(signal -> {
+                pendingOrders.remove(eventId);
+                pendingOrderPermits.release();
+            })
+            .subscribe(
+                placedOrder -> log.info("Accepted order '{}' placed", eventId),
+                exception -> {
+                    log.error("Placing accepted order '{}' failed with exception message: {}", eventId, exception.getMessage());
+                    rejectedOrders.put(eventId, exception.getMessage());
+                });
+
+        log.info("Order '{}' accepted for userId '{}'", eventId, order.getUserId());
+        return eventId;
+    }
+
+    public Mono<OrderDto> findOrder(String eventId) {
+        return Mono.fromCallable(() -> orderService.findOrder(eventId))
+            .subscribeOn(persistenceScheduler);
+    }
+
+    public boolean isPending(String eventId) {
+        return pendingOrders.contains(eventId);
+    }
+
+    public Optional<String> findRejectionReason(String eventId) {
+        return Optional.ofNullable(rejectedOrders.get(eventId));
+    }
+
+    private List<OrderBatchResultDto> saveValidOrders(List<Order> orders, Set<Long> unknownUsers) {
+        List<OrderBatchResultDto> results = new ArrayList<>(orders.size());
+        Map<String, Order> validOrders = new LinkedHashMap<>();
+        orders.forEach(order -> {
+            if (unknownUsers.contains(order.getUserId())) {
+                results.add(new OrderBatchResultDto(null, order.getUserId(),
+                    String.format("User '%s' is not found", order.getUserId())));
+            }
+            else {
+                String eventId = UUID.randomUUID().toString();
+                validOrders.put(eventId, order);
+                results.add(new OrderBatchResultDto(eventId, order.getUserId(), null));
+            }
+        });
+
+        if (!validOrders.isEmpty()) {
+            orderService.saveOrders(validOrders);
+        }
+        log.info("Batch of '{}' orders placed, '{}' rejected", validOrders.size(), orders.size() - validOrders.size());
+        return results;
+    }
+
+    private Mono<Order> placeOrder(Order order, String eventId) {
+        return userValidationService.validateUser(order.getUserId())
+            .then(Mono.fromCallable(() -> orderService.saveOrder(order, eventId))
+                .subscribeOn(persistenceScheduler));
+    }
+}
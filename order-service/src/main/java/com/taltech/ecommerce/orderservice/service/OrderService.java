@@ -1,25 +1,27 @@
 package com.taltech.ecommerce.orderservice.service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.reactive.function.client.WebClient;
 
-import com.taltech.ecommerce.orderservice.dto.OrderDto;
-import com.taltech.ecommerce.orderservice.dto.user.UserDto;
-import com.taltech.ecommerce.orderservice.event.OrderEvent;
 import com.taltech.ecommerce.orderservice.mapper.OrderMapper;
 import com.taltech.ecommerce.orderservice.model.Order;
 import com.taltech.ecommerce.orderservice.model.OrderEventStatus;
 import com.taltech.ecommerce.orderservice.publisher.OrderEventPublisher;
 import com.taltech.ecommerce.orderservice.repository.OrderRepository;
+import com.taltech.ecommerce.sagaevents.dto.OrderDto;
+import com.taltech.ecommerce.sagaevents.dto.OrderEventStatusDto;
+import com.taltech.ecommerce.sagaevents.enumeration.EventStatus;
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
 
-import io.micrometer.observation.Observation;
-import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,78 +29,69 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 @RequiredArgsConstructor
 @Transactional
-@Retryable
 @Slf4j
 public class OrderService {
 
     private final OrderRepository repository;
     private final OrderMapper mapper;
-    private final WebClient.Builder webClientBuilder;
-    private final ObservationRegistry observationRegistry;
 
     private final OrderEventPublisher orderEventPublisher;
+    private final MeterRegistry meterRegistry;
 
-    @Value("${user.service.url}")
-    private String userServiceUrl;
+    @Retryable
+    public Order saveOrder(Order order, String eventId) {
+        addEventStatus(order, eventId);
+        addDates(order);
+        Order savedOrder = repository.save(order);
 
-    public void placeOrder(Order order) {
-        validations(order);
+        startOrder(savedOrder);
+        return savedOrder;
+    }
 
-        OrderEventStatus orderEventStatus = new OrderEventStatus();
-        orderEventStatus.setId(UUID.randomUUID().toString());
-        order.setOrderEventStatus(orderEventStatus);
+    @Retryable
+    public List<Order> saveOrders(Map<String, Order> ordersByEventId) {
+        ordersByEventId.forEach((eventId, order) -> {
+            addEventStatus(order, eventId);
+            addDates(order);
+        });
+        List<Order> savedOrders = repository.saveAll(ordersByEventId.values());
 
-        addDates(order);
-        repository.save(order);
+        startOrders(savedOrders);
+        return savedOrders;
+    }
 
-        startOrder(order);
+    @Transactional(readOnly = true)
+    public OrderDto findOrder(String eventId) {
+        return mapper.toDto(findOrderByEventId(eventId));
     }
 
     public void orderCompleted(OrderEvent orderEvent) {
-        Order receivedOrder = mapper.toModel(orderEvent.getOrder());
-        Order order = findOrderByEventId(receivedOrder.getOrderEventStatus().getId());
+        OrderEventStatusDto receivedStatus = orderEvent.getOrder().getOrderEventStatus();
+        Order order = findOrderByEventId(receivedStatus.getId());
 
         order.setPaymentCode(orderEvent.getOrder().getPaymentCode());
         order.setTotalPrice(orderEvent.getOrder().getTotalPrice());
 
-        order.getOrderEventStatus().setInventoryStatus(receivedOrder.getOrderEventStatus().getInventoryStatus());
-        order.getOrderEventStatus().setChartStatus(receivedOrder.getOrderEventStatus().getChartStatus());
-        order.getOrderEventStatus().setPaymentStatus(receivedOrder.getOrderEventStatus().getPaymentStatus());
+        order.getOrderEventStatus().setInventoryStatus(receivedStatus.getInventoryStatus());
+        order.getOrderEventStatus().setChartStatus(receivedStatus.getChartStatus());
+        order.getOrderEventStatus().setPaymentStatus(receivedStatus.getPaymentStatus());
         order.setUpdateDate(LocalDateTime.now());
 
         repository.saveAndFlush(order);
+        recordSagaDuration(order, "completed");
     }
 
     public void orderFailed(OrderEvent orderEvent) {
-        Order receivedOrder = mapper.toModel(orderEvent.getOrder());
-        Order order = findOrderByEventId(receivedOrder.getOrderEventStatus().getId());
+        OrderEventStatusDto receivedStatus = orderEvent.getOrder().getOrderEventStatus();
+        Order order = findOrderByEventId(receivedStatus.getId());
 
-        order.getOrderEventStatus().setInventoryStatus(receivedOrder.getOrderEventStatus().getInventoryStatus());
-        order.getOrderEventStatus().setChartStatus(receivedOrder.getOrderEventStatus().getChartStatus());
-        order.getOrderEventStatus().setPaymentStatus(receivedOrder.getOrderEventStatus().getPaymentStatus());
+        order.getOrderEventStatus().setInventoryStatus(receivedStatus.getInventoryStatus());
+        order.getOrderEventStatus().setChartStatus(receivedStatus.getChartStatus());
+        order.getOrderEventStatus().setPaymentStatus(receivedStatus.getPaymentStatus());
         order.setUpdateDate(LocalDateTime.now());
 
         repository.saveAndFlush(order);
-    }
-
-    private void validations(Order order) {
-        validateUser(order);
-        // other validations
-    }
-
-    private void validateUser(Order order) {
-        Observation userServiceObservation = Observation.createNotStarted("user-service-validation", this.observationRegistry);
-        userServiceObservation.lowCardinalityKeyValue("call", "user-service");
-        userServiceObservation.observe(() -> {
-            UserDto userResponseDto = webClientBuilder.build().get()
-                .uri(userServiceUrl + order.getUserId())
-                .retrieve()
-                .bodyToMono(UserDto.class)
-                .block();
-            if(userResponseDto == null) {
-                throw new EntityNotFoundException(String.format("User '%s' is not found", order.getUserId()));
-            }
-        });
+        recordSagaDuration(order, isRollbackFailed(receivedStatus) ? "rollback_failed" : "failed");
     }
 
     private void startOrder(Order order) {
@@ -107,6 +100,19 @@ public class OrderService {
         orderEventPublisher.publishUpdateInventory(orderEvent);
     }
 
+    private void startOrders(List<Order> orders) {
+        List<OrderEvent> orderEvents = orders.stream()
+            .map(order -> OrderEvent.builder().order(mapper.toDto(order)).build())
+            .toList();
+        orderEventPublisher.publishUpdateInventory(orderEvents);
+    }
+
+    private static void addEventStatus(Order order, String eventId) {
+        OrderEventStatus orderEventStatus = new OrderEventStatus();
+        orderEventStatus.setId(eventId);
+        order.setOrderEventStatus(orderEventStatus);
+    }
+
     private void addDates(Order order) {
         order.setInsertDate(LocalDateTime.now());
         order.setUpdateDate(LocalDateTime.now());
@@ -117,6 +123,20 @@ public class OrderService {
         });
     }
 
+    private void recordSagaDuration(Order order, String outcome) {
+        Timer.builder("saga.order.duration")
+            .description("Time from saving the order until its saga completed or failed")
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(Duration.between(order.getInsertDate(), order.getUpdateDate()));
+    }
+
+    private static boolean isRollbackFailed(OrderEventStatusDto orderEventStatus) {
+        return Stream.of(orderEventStatus.getInventoryStatus(), orderEventStatus.getChartStatus(), orderEventStatus.getPaymentStatus())
+            .anyMatch(EventStatus.ROLLBACK_FAILED::equals);
+    }
+
     private Order findOrderByEventId(String eventId) {
         return repository.findByOrderEventStatusId(eventId)
             .orElseThrow(() -> new EntityNotFoundException(String.format("Order not found by eventId '%s'",
@@ -0,0 +1,134 @@
+package com.taltech.ecommerce.orderservice.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.taltech.ecommerce.orderservice.dto.user.UserDto;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+@Service
+@Slf4j
+public class UserValidationService {
+
+    private final WebClient webClient;
+    private final ObservationRegistry observationRegistry;
+    private final AsyncCache<Long, Boolean> userCache;
+
+    @Value("${user.service.url}")
+    private String userServiceUrl;
+
+    public UserValidationService(WebClient.Builder webClientBuilder,
+                                 ObservationRegistry observationRegistry,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${user.validation.cache.maximum-size}") long maximumSize,
+                                 @Value("${user.validation.cache.ttl}") Duration ttl,
+                                 @Value("${user.validation.cache.negative-ttl}") Duration negativeTtl) {
+        this.webClient = webClientBuilder.build();
+        this.observationRegistry = observationRegistry;
+        this.userCache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new UserExpiry(ttl, negativeTtl))
+            .recordStats()
+            .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, userCache.synchronous(), "user-validation");
+    }
+
+    public Mono<Void> validateUser(Long userId) {
+        return Mono.defer(() -> {
+            boolean cached = userCache.getIfPresent(userId) != null;
+            Observation userValidationObservation = Observation.createNotStarted("user-validation", this.observationRegistry);
+            userValidationObservation.lowCardinalityKeyValue("cache", cached ? "hit" : "miss");
+            userValidationObservation.start();
+
+            return Mono.fromFuture(() -> userCache.get(userId, (id, executor) -> fetchUserExists(id).toFuture()))
+                .flatMap(userExists -> Boolean.TRUE.equals(userExists)
+                    ? Mono.<Void>empty()
+                    : Mono.<Void>error(new EntityNotFoundException(String.format("User '%s' is not found", userId))))
+                .doOnError(userValidationObservation::error)
+                .doFinally(signal -> userValidationObservation.stop());
+        });
+    }
+
+    public Mono<Set<Long>> findUnknownUsers(Set<Long> userIds) {
+        return Mono.fromFuture(() -> userCache.getAll(userIds, (missingUserIds, executor) -> fetchUsersExist(missingUserIds).toFuture()))
+            .map(usersExist -> usersExist.entrySet().stream()
+                .filter(userExists -> !Boolean.TRUE.equals(userExists.getValue()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet()));
+    }
+
+    private Mono<Map<Long, Boolean>> fetchUsersExist(Set<? extends Long> userIds) {
+        return Mono.defer(() -> {
+            Observation userServiceObservation = Observation.createNotStarted("user-service-validation", this.observationRegistry);
+            userServiceObservation.lowCardinalityKeyValue("call", "user-service-batch");
+            userServiceObservation.start();
+
+            return webClient.post()
+                .uri(userServiceUrl + "existing")
+                .bodyValue(userIds)
+                .retrieve()
+                .bodyToFlux(Long.class)
+                .collect(Collectors.toSet())
+                .map(existingUserIds -> userIds.stream()
+                    .collect(Collectors.<Long, Long, Boolean>toMap(userId -> userId, existingUserIds::contains)))
+                .doOnError(userServiceObservation::error)
+                .doFinally(signal -> userServiceObservation.stop());
+        });
+    }
+
+    private Mono<Boolean> fetchUserExists(Long userId) {
+        return Mono.defer(() -> {
+            Observation userServiceObservation = Observation.createNotStarted("user-service-validation", this.observationRegistry);
+            userServiceObservation.lowCardinalityKeyValue("call", "user-service");
+            userServiceObservation.start();
+
+            return webClient.get()
+                .uri(userServiceUrl + userId)
+                .retrieve()
+                .bodyToMono(UserDto.class)
+                .map(userResponseDto -> true)
+                .defaultIfEmpty(false)
+                .onErrorResume(WebClientResponseException.NotFound.class, exception -> {
+                    log.info("User '{}' is not found in user-service", userId);
+                    return Mono.just(false);
+                })
+                .doOnError(userServiceObservation::error)
+                .doFinally(signal -> userServiceObservation.stop());
+        });
+    }
+
+    private record UserExpiry(Duration ttl, Duration negativeTtl) implements Expiry<Long, Boolean> {
+
+        @Override
+        public long expireAfterCreate(Long userId, Boolean userExists, long currentTime) {
+            return Boolean.TRUE.equals(userExists) ? ttl.toNanos() : negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Long userId, Boolean userExists, long currentTime, long currentDuration) {
+            return expireAfterCreate(userId, userExists, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long userId, Boolean userExists, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -8,11 +8,11 @@ import java.util.UUID;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
-import com.taltech.ecommerce.orderservice.enumeration.EventStatus;
 import com.taltech.ecommerce.orderservice.model.Order;
 import com.taltech.ecommerce.orderservice.model.OrderEventStatus;
 import com.taltech.ecommerce.orderservice.model.OrderItem;
 import com.taltech.ecommerce.orderservice.repository.OrderRepository;
+import com.taltech.ecommerce.sagaevents.enumeration.EventStatus;
 
 import lombok.RequiredArgsConstructor;
 
@@ -0,0 +1,21 @@
+package com.taltech.ecommerce.paymentservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    @Value("${kafka.topic.partitions}")
+    private int partitions;
+
+    @Bean
+    public KafkaAdmin.NewTopics paymentTopics() {
+        return new KafkaAdmin.NewTopics(
+            TopicBuilder.name("savePaymentTopic").partitions(partitions).build(),
+            TopicBuilder.name("rollbackPaymentTopic").partitions(partitions).build());
+    }
+}
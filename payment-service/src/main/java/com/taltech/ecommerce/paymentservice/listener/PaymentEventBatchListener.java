@@ -0,0 +1,58 @@
+package com.taltech.ecommerce.paymentservice.listener;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import com.taltech.ecommerce.paymentservice.service.PaymentService;
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+import com.taltech.ecommerce.sagaevents.retry.TransientFailures;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@ConditionalOnProperty(name = "kafka.listener.batch.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentEventBatchListener {
+
+    private final PaymentService service;
+    private final ObservationRegistry observationRegistry;
+
+    @KafkaListener(topics = "savePaymentTopic", batch = "true")
+    public void receiveSavePayment(List<OrderEvent> orderEvents) {
+        Observation.createNotStarted("save-payment-batch-received", this.observationRegistry)
+            .observe(() -> {
+                log.info("Save order payment batch of '{}' events received", orderEvents.size());
+                try {
+                    service.commitSaves(orderEvents);
+                }
+                catch (Exception exception) {
+                    log.error("Save order payment batch failed, processing '{}' events one by one. Exception message: {}",
+                        orderEvents.size(), exception.getMessage());
+                    TransientFailures.processEach(orderEvents, service::commitSave);
+                }
+            });
+    }
+
+    @KafkaListener(topics = "rollbackPaymentTopic", batch = "true")
+    public void receiveRollbackPayment(List<OrderEvent> orderEvents) {
+        Observation.createNotStarted("rollback-payment-batch-received", this.observationRegistry)
+            .observe(() -> {
+                log.info("Rollback order payment batch of '{}' events received", orderEvents.size());
+                try {
+                    service.rollbackSaves(orderEvents);
+                }
+                catch (Exception exception) {
+                    log.error("Rollback order payment batch failed, processing '{}' events one by one. Exception message: {}",
+                        orderEvents.size(), exception.getMessage());
+                    TransientFailures.processEach(orderEvents, service::rollbackSave);
+                }
+            });
+    }
+}
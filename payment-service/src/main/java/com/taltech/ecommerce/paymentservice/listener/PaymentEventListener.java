@@ -1,10 +1,11 @@
 package com.taltech.ecommerce.paymentservice.listener;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
-import com.taltech.ecommerce.paymentservice.event.OrderEvent;
 import com.taltech.ecommerce.paymentservice.service.PaymentService;
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
 
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
@@ -12,6 +13,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Component
+@ConditionalOnProperty(name = "kafka.listener.batch.enabled", havingValue = "false", matchIfMissing = true)
 @RequiredArgsConstructor
 @Slf4j
 public class PaymentEventListener {
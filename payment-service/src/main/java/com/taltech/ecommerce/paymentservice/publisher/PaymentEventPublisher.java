@@ -1,12 +1,11 @@
 package com.taltech.ecommerce.paymentservice.publisher;
 
-import java.util.concurrent.CompletableFuture;
+import java.util.List;
 
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
-import com.taltech.ecommerce.paymentservice.event.OrderEvent;
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+import com.taltech.ecommerce.sagaevents.outbox.OutboxWriter;
 
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
@@ -18,28 +17,39 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class PaymentEventPublisher {
 
-    private final KafkaTemplate<String, OrderEvent> kafkaTemplate;
+    private final OutboxWriter outboxWriter;
     private final ObservationRegistry observationRegistry;
 
     public void publishOrderCompleted(OrderEvent orderEvent) {
-        publishEvent("orderCompletedTopic", "payment-saved-sent", orderEvent);
+        publishEvent("orderCompletedTopic", "payment-saved-outboxed", orderEvent.withoutItems(), false);
     }
 
-    public void publishRollbackChart(OrderEvent orderEvent) {
-        publishEvent("rollbackChartTopic", "rollback-chart-sent", orderEvent);
+    public void publishRollbackChart(OrderEvent orderEvent, boolean rollbackOnly) {
+        publishEvent("rollbackChartTopic", "rollback-chart-outboxed", orderEvent, rollbackOnly);
     }
 
-    private void publishEvent(String topic, String observationName, OrderEvent orderEvent) {
-        log.info("Publishing payment event '{}' to '{}'", topic, orderEvent.getOrder().getOrderEventStatus().getId());
+    public void publishOrderCompleted(List<OrderEvent> orderEvents) {
+        publishEvents("orderCompletedTopic", "payment-saved-outboxed", orderEvents.stream().map(OrderEvent::withoutItems).toList());
+    }
+
+    public void publishRollbackChart(List<OrderEvent> orderEvents) {
+        publishEvents("rollbackChartTopic", "rollback-chart-outboxed", orderEvents);
+    }
+
+    private void publishEvent(String topic, String observationName, OrderEvent orderEvent, boolean rollbackOnly) {
+        log.info("Publishing payment event '{}' to '{}'", orderEvent.getOrder().getOrderEventStatus().getId(), topic);
 
-        try {
-            Observation.createNotStarted(observationName, this.observationRegistry).observe(() -> {
-                CompletableFuture<SendResult<String, OrderEvent>> future = kafkaTemplate.send(topic, orderEvent);
-                return future.handle((result, throwable) -> CompletableFuture.completedFuture(result));
-            });
-        } catch (Exception exception) {
-            log.error("Exception occurred while sending message to kafka, exception message: {}", exception.getMessage());
+        Observation.createNotStarted(observationName, this.observationRegistry)
+            .observe(() -> outboxWriter.write(topic, orderEvent, rollbackOnly));
+    }
+
+    private void publishEvents(String topic, String observationName, List<OrderEvent> orderEvents) {
+        if (orderEvents.isEmpty()) {
+            return;
         }
+        log.info("Publishing '{}' payment events to '{}'", orderEvents.size(), topic);
+
+        Observation.createNotStarted(observationName, this.observationRegistry)
+            .observe(() -> outboxWriter.writeAll(topic, orderEvents));
     }
 }
-
@@ -1,12 +1,41 @@
 package com.taltech.ecommerce.paymentservice.repository;
 
-import java.util.Optional;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.taltech.ecommerce.paymentservice.model.Payment;
 
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
 
-    Optional<Payment> findByCode(String code);
+    interface PaymentTotal {
+
+        String getCode();
+
+        BigDecimal getTotalPrice();
+    }
+
+    List<PaymentTotal> findTotalsByCodeIn(Collection<String> codes);
+
+    /**
+     * Deactivates the payments with one statement and returns the ones found.
+     */
+    @Query(value = "update payment set active = false, update_date = now() where code in (:codes) "
+        + "returning code as code, total_price as totalPrice", nativeQuery = true)
+    List<PaymentTotal> deactivateByCodes(@Param("codes") Collection<String> codes);
+
+    /**
+     * Raises the pooled id sequence to the highest id of the table, so the ids it hands out are all new.
+     */
+    @Query(value = "select setval('payment_seq', ids.max_id) from (select max(id) as max_id from payment) as ids "
+        + "where ids.max_id > (select last_value from payment_seq)", nativeQuery = true)
+    List<Long> alignPaymentSequence();
+
+    @Query(value = "select setval('payment_item_seq', ids.max_id) from (select max(id) as max_id from payment_item) as ids "
+        + "where ids.max_id > (select last_value from payment_item_seq)", nativeQuery = true)
+    List<Long> alignPaymentItemSequence();
 }
@@ -1,30 +1,44 @@
 package com.taltech.ecommerce.paymentservice.service;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import com.taltech.ecommerce.paymentservice.dto.OrderDto;
-import com.taltech.ecommerce.paymentservice.enumeration.EventStatus;
-import com.taltech.ecommerce.paymentservice.event.OrderEvent;
 import com.taltech.ecommerce.paymentservice.exception.PaymentSaveException;
 import com.taltech.ecommerce.paymentservice.model.Payment;
 import com.taltech.ecommerce.paymentservice.model.PaymentItem;
 import com.taltech.ecommerce.paymentservice.publisher.PaymentEventPublisher;
 import com.taltech.ecommerce.paymentservice.repository.PaymentRepository;
+import com.taltech.ecommerce.sagaevents.dto.OrderDto;
+import com.taltech.ecommerce.sagaevents.enumeration.EventStatus;
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+import com.taltech.ecommerce.sagaevents.retry.TransientFailures;
+import com.taltech.ecommerce.sagaevents.retry.TransientSagaException;
 
 import jakarta.persistence.EntityNotFoundException;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
-@RequiredArgsConstructor
 @Transactional
 @Slf4j
 public class PaymentService {
@@ -33,43 +47,140 @@ public class PaymentService {
 
     private final PaymentRepository repository;
     private final PaymentEventPublisher eventPublisher;
+    private final PaymentWriter paymentWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration saveTimeout;
 
+    public PaymentService(PaymentRepository repository,
+                          PaymentEventPublisher eventPublisher,
+                          PaymentWriter paymentWriter,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${payment.writer.save-timeout}") Duration saveTimeout) {
+        this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.paymentWriter = paymentWriter;
+        this.transactionTemplate = transactionTemplate;
+        this.saveTimeout = saveTimeout;
+    }
+
+    /**
+     * The payment is handed to {@link PaymentWriter} without a transaction, so no pooled connection is held while
+     * waiting for its group commit. Only the outbox write of the outcome runs in a transaction.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void commitSave(OrderEvent orderEvent) {
         Payment payment = getPayment(orderEvent);
         try {
-            Payment savedPayment = savePayment("Commit", payment);
-            orderEvent.getOrder().setPaymentCode(savedPayment.getCode());
-            orderEvent.getOrder().setTotalPrice(savedPayment.getTotalPrice());
-            orderEvent.getOrder().getOrderEventStatus().setPaymentStatus(EventStatus.SUCCESSFUL);
-            eventPublisher.publishOrderCompleted(orderEvent);
+            Payment savedPayment = savePayment(payment);
+            transactionTemplate.executeWithoutResult(status -> eventPublisher.publishOrderCompleted(orderEvent
+                .withPayment(savedPayment.getCode(), savedPayment.getTotalPrice())
+                .withPaymentStatus(EventStatus.SUCCESSFUL)));
         } catch (Exception exception) {
+            TransientFailures.rethrowIfTransient(exception);
             log.error("Saving payment failed with exception message: {}", exception.getMessage());
-            orderEvent.getOrder().getOrderEventStatus().setPaymentStatus(EventStatus.FAILED);
-            eventPublisher.publishRollbackChart(orderEvent);
+            transactionTemplate.executeWithoutResult(status ->
+                eventPublisher.publishRollbackChart(orderEvent.withPaymentStatus(EventStatus.FAILED), false));
         }
     }
 
     public void rollbackSave(OrderEvent orderEvent) {
         Payment payment = getPayment(orderEvent);
         try {
-            Payment savedPayment = savePayment("Rollback", payment);
-            orderEvent.getOrder().setPaymentCode(savedPayment.getCode());
-            orderEvent.getOrder().setTotalPrice(savedPayment.getTotalPrice());
-            orderEvent.getOrder().getOrderEventStatus().setPaymentStatus(EventStatus.ROLLBACK);
-            eventPublisher.publishRollbackChart(orderEvent);
+            PaymentRepository.PaymentTotal deactivatedPayment = deactivatePayment(payment);
+            eventPublisher.publishRollbackChart(orderEvent
+                .withPayment(deactivatedPayment.getCode(), deactivatedPayment.getTotalPrice())
+                .withPaymentStatus(EventStatus.ROLLBACK), false);
 
         } catch (Exception exception) {
+            TransientFailures.rethrowIfTransient(exception);
             log.error("Rollbacking payment failed with exception message: {}", exception.getMessage());
-            orderEvent.getOrder().getOrderEventStatus().setPaymentStatus(EventStatus.ROLLBACK_FAILED);
-            eventPublisher.publishRollbackChart(orderEvent);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            eventPublisher.publishRollbackChart(orderEvent.withPaymentStatus(EventStatus.ROLLBACK_FAILED), true);
+        }
+    }
+
+    public void commitSaves(List<OrderEvent> orderEvents) {
+        List<Payment> payments = orderEvents.stream().map(this::getPayment).toList();
+        Map<String, Payment> savedPayments = repository.findTotalsByCodeIn(payments.stream().map(Payment::getCode).toList()).stream()
+            .collect(Collectors.toMap(PaymentRepository.PaymentTotal::getCode, PaymentService::toPayment));
+        List<OrderEvent> committedEvents = new ArrayList<>();
+        List<Payment> newPayments = new ArrayList<>();
+        List<OrderEvent> failedEvents = new ArrayList<>();
+
+        for (int index = 0; index < orderEvents.size(); index++) {
+            OrderEvent orderEvent = orderEvents.get(index);
+            Payment payment = payments.get(index);
+            try {
+                validate(payment);
+                if (savedPayments.putIfAbsent(payment.getCode(), payment) == null) {
+                    preparePayment(payment);
+                    newPayments.add(payment);
+                }
+                else {
+                    log.info("Commit - Payment with code '{}' is already saved", payment.getCode());
+                }
+                committedEvents.add(orderEvent);
+            }
+            catch (PaymentSaveException exception) {
+                log.error("Saving payment for event '{}' failed with exception message: {}",
+                    orderEvent.getOrder().getOrderEventStatus().getId(), exception.getMessage());
+                failedEvents.add(orderEvent.withPaymentStatus(EventStatus.FAILED));
+            }
         }
+
+        log.info("Commit - Saving '{}' payments", newPayments.size());
+        repository.saveAllAndFlush(newPayments);
+        List<OrderEvent> completedEvents = committedEvents.stream()
+            .map(orderEvent -> {
+                Payment savedPayment = savedPayments.get(getPaymentCode(orderEvent.getOrder()));
+                return orderEvent
+                    .withPayment(savedPayment.getCode(), savedPayment.getTotalPrice())
+                    .withPaymentStatus(EventStatus.SUCCESSFUL);
+            })
+            .toList();
+
+        eventPublisher.publishOrderCompleted(completedEvents);
+        eventPublisher.publishRollbackChart(failedEvents);
+    }
+
+    public void rollbackSaves(List<OrderEvent> orderEvents) {
+        Set<String> paymentCodes = new HashSet<>();
+        orderEvents.forEach(orderEvent -> {
+            Payment payment = getPayment(orderEvent);
+            if (isAllowed(payment)) {
+                paymentCodes.add(payment.getCode());
+            }
+        });
+        Map<String, PaymentRepository.PaymentTotal> deactivatedPayments = paymentCodes.isEmpty()
+            ? Map.of()
+            : repository.deactivateByCodes(paymentCodes).stream()
+                .collect(Collectors.toMap(PaymentRepository.PaymentTotal::getCode, Function.identity()));
+        List<OrderEvent> rollbackEvents = new ArrayList<>();
+
+        orderEvents.forEach(orderEvent -> {
+            String paymentCode = getPaymentCode(orderEvent.getOrder());
+            PaymentRepository.PaymentTotal payment = deactivatedPayments.get(paymentCode);
+            try {
+                validate(getPayment(orderEvent));
+                if (payment == null) {
+                    throw new EntityNotFoundException(String.format("Rollback - Payment with code '%s' not found", paymentCode));
+                }
+                rollbackEvents.add(orderEvent
+                    .withPayment(payment.getCode(), payment.getTotalPrice())
+                    .withPaymentStatus(EventStatus.ROLLBACK), false);
+            }
+            catch (PaymentSaveException | EntityNotFoundException exception) {
+                log.error("Rollbacking payment for event '{}' failed with exception message: {}",
+                    orderEvent.getOrder().getOrderEventStatus().getId(), exception.getMessage());
+                rollbackEvents.add(orderEvent.withPaymentStatus(EventStatus.ROLLBACK_FAILED));
+            }
+        });
+
+        eventPublisher.publishRollbackChart(rollbackEvents);
     }
 
     private Payment getPayment(OrderEvent orderEvent) {
         OrderDto order = orderEvent.getOrder();
-        String paymentCode = order.getPaymentCode() == null
-            ? UUID.randomUUID().toString()
-            : order.getPaymentCode();
         List<PaymentItem> paymentItems = new ArrayList<>();
         order.getOrderItems().forEach(orderItem -> paymentItems.add(PaymentItem.builder()
             .inventoryCode(orderItem.getInventoryCode())
@@ -77,55 +188,85 @@ public class PaymentService {
             .price(orderItem.getPrice())
             .build()));
         return Payment.builder()
-            .code(paymentCode)
+            .code(getPaymentCode(order))
             .userId(order.getUserId())
             .paymentItems(paymentItems)
             .build();
     }
 
-    private Payment savePayment(String action, Payment payment) {
+    /**
+     * A new payment code is derived from the event id, so a redelivered event finds the payment it already saved.
+     */
+    private static String getPaymentCode(OrderDto order) {
+        return order.getPaymentCode() == null
+            ? UUID.nameUUIDFromBytes(order.getOrderEventStatus().getId().getBytes(StandardCharsets.UTF_8)).toString()
+            : order.getPaymentCode();
+    }
+
+    private Payment savePayment(Payment payment) {
         validate(payment);
 
-        log.info("{} - Saving the payment for userId '{}' and code '{}'",
-            action,
+        log.info("Commit - Saving the payment for userId '{}' and code '{}'",
             payment.getUserId(),
             payment.getCode());
 
-        boolean rollback = action.equals("Rollback");
-        if(rollback) {
-            String paymentCode = payment.getCode();
-            payment = repository.findByCode(payment.getCode()).orElseThrow(() ->
-                new EntityNotFoundException(String.format("%s - Payment with code '%s' not found",
-                    action,
-                    paymentCode)));
+        preparePayment(payment);
+        try {
+            return paymentWriter.save(payment).get(saveTimeout.toMillis(), TimeUnit.MILLISECONDS);
         }
-        else{
-            calculateTotalPrice(payment);
+        catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new PaymentSaveException(String.format("Commit - Payment save failed for code '%s'", payment.getCode()));
         }
-
-        setPaymentActive(payment, !rollback);
-        if(action.equals("Commit")) {
-            setPaymentInsertDates(payment);
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new TransientSagaException(String.format("Commit - Interrupted while saving the payment with code '%s'",
+                payment.getCode()), exception);
+        }
+        catch (TimeoutException exception) {
+            // The writer may still commit the payment, which the retry then finds by its code
+            throw new TransientSagaException(String.format("Commit - Saving the payment with code '%s' timed out after '%s'",
+                payment.getCode(), saveTimeout), exception);
         }
+    }
+
+    private PaymentRepository.PaymentTotal deactivatePayment(Payment payment) {
+        validate(payment);
+
+        log.info("Rollback - Deactivating the payment for userId '{}' and code '{}'",
+            payment.getUserId(),
+            payment.getCode());
+
+        return repository.deactivateByCodes(List.of(payment.getCode())).stream()
+            .findFirst()
+            .orElseThrow(() -> new EntityNotFoundException(String.format("Rollback - Payment with code '%s' not found",
+                payment.getCode())));
+    }
+
+    private void preparePayment(Payment payment) {
+        calculateTotalPrice(payment);
+        setPaymentActive(payment, true);
+        setPaymentInsertDates(payment);
         setPaymentUpdateDates(payment);
+    }
 
-        try {
-            return repository.saveAndFlush(payment);
-        }
-        catch (Exception exception) {
-            throw new PaymentSaveException(String.format("%s - Payment save failed for userId '%s' and code '%s'",
-                action,
-                payment.getUserId(),
-                payment.getCode()));
-        }
+    private static Payment toPayment(PaymentRepository.PaymentTotal paymentTotal) {
+        return Payment.builder()
+            .code(paymentTotal.getCode())
+            .totalPrice(paymentTotal.getTotalPrice())
+            .build();
+    }
+
+    private static boolean isAllowed(Payment payment) {
+        return !NOT_ALLOWED_USERS.contains(payment.getUserId());
     }
 
     private static void validate(Payment payment) {
-        NOT_ALLOWED_USERS.forEach(notAllowedUser -> {
-            if(notAllowedUser.equals(payment.getUserId())) {
-                throw new PaymentSaveException(String.format("Payments are not allowed for user '%s'", payment.getUserId()));
-            }
-        });
+        if (!isAllowed(payment)) {
+            throw new PaymentSaveException(String.format("Payments are not allowed for user '%s'", payment.getUserId()));
+        }
     }
 
     private void setPaymentActive(Payment payment, boolean active) {
@@ -0,0 +1,203 @@
+package com.taltech.ecommerce.paymentservice.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.taltech.ecommerce.paymentservice.exception.PaymentSaveException;
+import com.taltech.ecommerce.paymentservice.model.Payment;
+import com.taltech.ecommerce.paymentservice.repository.PaymentRepository;
+import com.taltech.ecommerce.sagaevents.retry.TransientFailures;
+import com.taltech.ecommerce.sagaevents.retry.TransientSagaException;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Group commit for payments. Payments handed over by concurrent saga steps within {@code payment.writer.window} are
+ * saved by one thread in one transaction and one JDBC batch, and the future of every payment completes after that
+ * commit. A payment whose code is already saved completes with the saved payment instead. When a group fails, its
+ * payments are saved one at a time, so one bad payment fails only its own saga step.
+ */
+@Component
+@Slf4j
+public class PaymentWriter implements SmartLifecycle {
+
+    // Starts before and stops after the Kafka listener containers, so no saga step waits for a stopped writer
+    private static final int PHASE = Integer.MAX_VALUE - 200;
+
+    private final PaymentRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final long windowNanos;
+    private final int batchSize;
+    private final BlockingQueue<PendingPayment> pendingPayments;
+    private volatile Thread thread;
+    private volatile boolean running;
+
+    public PaymentWriter(PaymentRepository repository,
+                         TransactionTemplate transactionTemplate,
+                         @Value("${payment.writer.window}") Duration window,
+                         @Value("${payment.writer.batch-size}") int batchSize,
+                         @Value("${payment.writer.queue-capacity}") int queueCapacity) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.windowNanos = window.toNanos();
+        this.batchSize = batchSize;
+        this.pendingPayments = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Moves the pooled id sequences past the ids of rows inserted before they existed.
+     */
+    @PostConstruct
+    public void alignSequences() {
+        transactionTemplate.executeWithoutResult(status -> {
+            repository.alignPaymentSequence();
+            repository.alignPaymentItemSequence();
+        });
+    }
+
+    public CompletableFuture<Payment> save(Payment payment) {
+        PendingPayment pendingPayment = new PendingPayment(payment, new CompletableFuture<>());
+        if (!running || !pendingPayments.offer(pendingPayment)) {
+            pendingPayment.future().completeExceptionally(new TransientSagaException(String.format(
+                "Commit - Payment writer can't take the payment with code '%s'", payment.getCode()), null));
+        }
+        return pendingPayment.future();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "payment-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void run() {
+        while (running || !pendingPayments.isEmpty()) {
+            try {
+                PendingPayment firstPayment = pendingPayments.poll(100, TimeUnit.MILLISECONDS);
+                if (firstPayment == null) {
+                    continue;
+                }
+                List<PendingPayment> group = new ArrayList<>();
+                group.add(firstPayment);
+                long deadline = System.nanoTime() + windowNanos;
+                while (group.size() < batchSize) {
+                    PendingPayment nextPayment = pendingPayments.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (nextPayment == null) {
+                        break;
+                    }
+                    group.add(nextPayment);
+                }
+                write(group);
+            }
+            catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        failPendingPayments();
+    }
+
+    /**
+     * Payments handed over while the writer stopped are failed as transient, so their saga steps are retried.
+     */
+    private void failPendingPayments() {
+        List<PendingPayment> unsavedPayments = new ArrayList<>();
+        pendingPayments.drainTo(unsavedPayments);
+        unsavedPayments.forEach(pendingPayment -> pendingPayment.future().completeExceptionally(new TransientSagaException(
+            String.format("Commit - Payment writer stopped before saving the payment with code '%s'",
+                pendingPayment.payment().getCode()), null)));
+    }
+
+    private void write(List<PendingPayment> group) {
+        try {
+            Map<String, Payment> savedPayments = transactionTemplate.execute(status -> saveGroup(group));
+            group.forEach(pendingPayment -> pendingPayment.future().complete(savedPayments.get(pendingPayment.payment().getCode())));
+            log.debug("Commit - Saved a group of '{}' payments", group.size());
+        }
+        catch (Exception exception) {
+            if (group.size() == 1) {
+                group.get(0).future().completeExceptionally(toSagaException(group.get(0).payment(), exception));
+                return;
+            }
+            log.error("Commit - Saving a group of '{}' payments failed, saving them one by one. Exception message: {}",
+                group.size(), exception.getMessage());
+            group.forEach(pendingPayment -> {
+                // The failed transaction already gave the payment ids, which it did not insert
+                pendingPayment.payment().setId(null);
+                pendingPayment.payment().getPaymentItems().forEach(paymentItem -> paymentItem.setId(null));
+                write(List.of(pendingPayment));
+            });
+        }
+    }
+
+    private Map<String, Payment> saveGroup(List<PendingPayment> group) {
+        Map<String, Payment> savedPayments = new HashMap<>();
+        repository.findTotalsByCodeIn(group.stream().map(pendingPayment -> pendingPayment.payment().getCode()).toList())
+            .forEach(paymentTotal -> savedPayments.put(paymentTotal.getCode(), Payment.builder()
+                .code(paymentTotal.getCode())
+                .totalPrice(paymentTotal.getTotalPrice())
+                .build()));
+        List<Payment> newPayments = new ArrayList<>();
+        group.forEach(pendingPayment -> {
+            if (savedPayments.putIfAbsent(pendingPayment.payment().getCode(), pendingPayment.payment()) == null) {
+                newPayments.add(pendingPayment.payment());
+            }
+        });
+        repository.saveAllAndFlush(newPayments);
+        return savedPayments;
+    }
+
+    private static RuntimeException toSagaException(Payment payment, Exception exception) {
+        if (exception instanceof DataIntegrityViolationException) {
+            // Saved meanwhile by a concurrent delivery of the same event, which the retry finds
+            return new TransientSagaException(String.format("Commit - Payment with code '%s' was saved concurrently",
+                payment.getCode()), exception);
+        }
+        if (TransientFailures.isTransient(exception)) {
+            return new TransientSagaException(String.format("Transient failure: %s", exception.getMessage()), exception);
+        }
+        return new PaymentSaveException(String.format("Commit - Payment save failed for userId '%s' and code '%s'",
+            payment.getUserId(),
+            payment.getCode()));
+    }
+
+    private record PendingPayment(Payment payment, CompletableFuture<Payment> future) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.taltech.ecommerce.sagaevents.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+@Value
+@Builder(toBuilder = true)
+@Jacksonized
+public class OrderDto {
+
+    OrderEventStatusDto orderEventStatus;
+    Long userId;
+    List<OrderItemDto> orderItems;
+    String paymentCode;
+    BigDecimal totalPrice;
+    LocalDateTime insertDate;
+    LocalDateTime updateDate;
+}
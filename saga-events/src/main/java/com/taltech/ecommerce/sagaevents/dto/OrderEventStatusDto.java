@@ -0,0 +1,18 @@
+package com.taltech.ecommerce.sagaevents.dto;
+
+import com.taltech.ecommerce.sagaevents.enumeration.EventStatus;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+@Value
+@Builder(toBuilder = true)
+@Jacksonized
+public class OrderEventStatusDto {
+
+    String id;
+    EventStatus inventoryStatus;
+    EventStatus chartStatus;
+    EventStatus paymentStatus;
+}
@@ -0,0 +1,20 @@
+package com.taltech.ecommerce.sagaevents.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+@Value
+@Builder(toBuilder = true)
+@Jacksonized
+public class OrderItemDto {
+
+    String inventoryCode;
+    Integer quantity;
+    BigDecimal price;
+    LocalDateTime insertDate;
+    LocalDateTime updateDate;
+}
@@ -1,4 +1,4 @@
-package com.taltech.ecommerce.orderservice.enumeration;
+package com.taltech.ecommerce.sagaevents.enumeration;
 
 public enum EventStatus {
     SUCCESSFUL,
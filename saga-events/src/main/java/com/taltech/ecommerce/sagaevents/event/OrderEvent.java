@@ -0,0 +1,64 @@
+package com.taltech.ecommerce.sagaevents.event;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.taltech.ecommerce.sagaevents.dto.OrderDto;
+import com.taltech.ecommerce.sagaevents.dto.OrderEventStatusDto;
+import com.taltech.ecommerce.sagaevents.dto.OrderItemDto;
+import com.taltech.ecommerce.sagaevents.enumeration.EventStatus;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Saga event exchanged between the services. Instances are immutable; participants derive the event they
+ * publish with the {@code with*} methods instead of changing the received one.
+ */
+@Value
+@Builder(toBuilder = true)
+@Jacksonized
+public class OrderEvent {
+
+    OrderDto order;
+
+    public OrderEvent withInventoryStatus(EventStatus inventoryStatus) {
+        return withOrderEventStatus(order.getOrderEventStatus().toBuilder().inventoryStatus(inventoryStatus).build());
+    }
+
+    public OrderEvent withChartStatus(EventStatus chartStatus) {
+        return withOrderEventStatus(order.getOrderEventStatus().toBuilder().chartStatus(chartStatus).build());
+    }
+
+    public OrderEvent withPaymentStatus(EventStatus paymentStatus) {
+        return withOrderEventStatus(order.getOrderEventStatus().toBuilder().paymentStatus(paymentStatus).build());
+    }
+
+    public OrderEvent withPayment(String paymentCode, BigDecimal totalPrice) {
+        return toBuilder()
+            .order(order.toBuilder().paymentCode(paymentCode).totalPrice(totalPrice).build())
+            .build();
+    }
+
+    public OrderEvent withItems(List<OrderItemDto> orderItems) {
+        return toBuilder()
+            .order(order.toBuilder().orderItems(orderItems).build())
+            .build();
+    }
+
+    /**
+     * Saga header only, for topics whose consumers don't read the items.
+     */
+    public OrderEvent withoutItems() {
+        return toBuilder()
+            .order(order.toBuilder().orderItems(null).build())
+            .build();
+    }
+
+    private OrderEvent withOrderEventStatus(OrderEventStatusDto orderEventStatus) {
+        return toBuilder()
+            .order(order.toBuilder().orderEventStatus(orderEventStatus).build())
+            .build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.taltech.ecommerce.sagaevents.metrics;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Per-topic latency of a saga hop: {@code saga.hop.queue.wait} from the moment the previous step published the
+ * event until a listener picks it up, and {@code saga.hop.processing} for the listener itself.
+ */
+@RequiredArgsConstructor
+public class HopMetrics {
+
+    public static final String PUBLISHED_AT_HEADER = "saga-published-at";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> queueWaits = new ConcurrentHashMap<>();
+    private final Map<String, Timer> processingTimes = new ConcurrentHashMap<>();
+
+    public static byte[] toHeaderValue(long publishedAt) {
+        return ByteBuffer.allocate(Long.BYTES).putLong(publishedAt).array();
+    }
+
+    public static Long publishedAt(Headers headers) {
+        Header header = headers.lastHeader(PUBLISHED_AT_HEADER);
+        return header == null || header.value().length != Long.BYTES ? null : ByteBuffer.wrap(header.value()).getLong();
+    }
+
+    public void recordQueueWait(String topic, Long publishedAt) {
+        if (publishedAt == null) {
+            return;
+        }
+        long queueWait = System.currentTimeMillis() - publishedAt;
+        queueWaits.computeIfAbsent(topic, key -> Timer.builder("saga.hop.queue.wait")
+                .tag("topic", key)
+                .publishPercentileHistogram()
+                .register(meterRegistry))
+            .record(Math.max(queueWait, 0), TimeUnit.MILLISECONDS);
+    }
+
+    public void recordProcessing(String topic, long startTime, boolean success) {
+        String outcome = success ? "success" : "failure";
+        processingTimes.computeIfAbsent(topic + ':' + outcome, key -> Timer.builder("saga.hop.processing")
+                .tag("topic", topic)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry))
+            .record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,47 @@
+package com.taltech.ecommerce.sagaevents.metrics;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.BatchInterceptor;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Batch counterpart of {@link SagaRecordInterceptor}: queue wait is recorded per event, processing time once per
+ * batch and topic.
+ */
+@RequiredArgsConstructor
+public class SagaBatchInterceptor implements BatchInterceptor<Object, Object> {
+
+    private final HopMetrics hopMetrics;
+    private final ThreadLocal<Long> startTime = new ThreadLocal<>();
+
+    @Override
+    public ConsumerRecords<Object, Object> intercept(ConsumerRecords<Object, Object> records, Consumer<Object, Object> consumer) {
+        records.forEach(record -> hopMetrics.recordQueueWait(record.topic(), HopMetrics.publishedAt(record.headers())));
+        startTime.set(System.nanoTime());
+        return records;
+    }
+
+    @Override
+    public void success(ConsumerRecords<Object, Object> records, Consumer<Object, Object> consumer) {
+        recordProcessing(records, true);
+    }
+
+    @Override
+    public void failure(ConsumerRecords<Object, Object> records, Exception exception, Consumer<Object, Object> consumer) {
+        recordProcessing(records, false);
+    }
+
+    private void recordProcessing(ConsumerRecords<Object, Object> records, boolean success) {
+        Long start = startTime.get();
+        if (start != null) {
+            startTime.remove();
+            records.partitions().stream()
+                .map(TopicPartition::topic)
+                .distinct()
+                .forEach(topic -> hopMetrics.recordProcessing(topic, start, success));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.taltech.ecommerce.sagaevents.metrics;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.listener.BatchInterceptor;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+import com.taltech.ecommerce.sagaevents.retry.RetryDepthMetrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@AutoConfiguration
+public class SagaMetricsAutoConfiguration {
+
+    @Bean
+    public HopMetrics hopMetrics(MeterRegistry meterRegistry) {
+        return new HopMetrics(meterRegistry);
+    }
+
+    @Bean
+    public RecordInterceptor<Object, Object> sagaRecordInterceptor(HopMetrics hopMetrics, RetryDepthMetrics retryDepthMetrics) {
+        return new SagaRecordInterceptor(hopMetrics, retryDepthMetrics);
+    }
+
+    @Bean
+    public BatchInterceptor<Object, Object> sagaBatchInterceptor(HopMetrics hopMetrics) {
+        return new SagaBatchInterceptor(hopMetrics);
+    }
+}
@@ -0,0 +1,53 @@
+package com.taltech.ecommerce.sagaevents.metrics;
+
+import java.math.BigInteger;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.kafka.listener.RecordInterceptor;
+import org.springframework.kafka.retrytopic.RetryTopicHeaders;
+
+import com.taltech.ecommerce.sagaevents.retry.RetryDepthMetrics;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Records hop latency of every consumed event and the attempt number of events consumed from a retry topic.
+ */
+@RequiredArgsConstructor
+public class SagaRecordInterceptor implements RecordInterceptor<Object, Object> {
+
+    private final HopMetrics hopMetrics;
+    private final RetryDepthMetrics retryDepthMetrics;
+    private final ThreadLocal<Long> startTime = new ThreadLocal<>();
+
+    @Override
+    public ConsumerRecord<Object, Object> intercept(ConsumerRecord<Object, Object> record, Consumer<Object, Object> consumer) {
+        Header attempts = record.headers().lastHeader(RetryTopicHeaders.DEFAULT_HEADER_ATTEMPTS);
+        if (attempts != null) {
+            retryDepthMetrics.recordAttempt(record.topic(), new BigInteger(attempts.value()).intValue());
+        }
+        hopMetrics.recordQueueWait(record.topic(), HopMetrics.publishedAt(record.headers()));
+        startTime.set(System.nanoTime());
+        return record;
+    }
+
+    @Override
+    public void success(ConsumerRecord<Object, Object> record, Consumer<Object, Object> consumer) {
+        recordProcessing(record, true);
+    }
+
+    @Override
+    public void failure(ConsumerRecord<Object, Object> record, Exception exception, Consumer<Object, Object> consumer) {
+        recordProcessing(record, false);
+    }
+
+    private void recordProcessing(ConsumerRecord<Object, Object> record, boolean success) {
+        Long start = startTime.get();
+        if (start != null) {
+            startTime.remove();
+            hopMetrics.recordProcessing(record.topic(), start, success);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.taltech.ecommerce.sagaevents.outbox;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the oldest events no relay has claimed, or whose claim expired, skipping the ones being claimed.
+     */
+    @Query(value = "select * from outbox_event where claimed_until is null or claimed_until < :now "
+        + "order by id limit :batchSize for update skip locked", nativeQuery = true)
+    List<OutboxEvent> findRelayBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.claimedUntil = :claimedUntil where e.id in :ids")
+    int updateClaimedUntil(@Param("ids") Collection<Long> ids, @Param("claimedUntil") LocalDateTime claimedUntil);
+}
@@ -0,0 +1,8 @@
+package com.taltech.ecommerce.sagaevents.outbox;
+
+public class OutboxException extends RuntimeException {
+
+    public OutboxException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
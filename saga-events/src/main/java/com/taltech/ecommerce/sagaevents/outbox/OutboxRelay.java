@@ -0,0 +1,140 @@
+package com.taltech.ecommerce.sagaevents.outbox;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+import com.taltech.ecommerce.sagaevents.producer.SagaEventSender;
+import com.taltech.ecommerce.sagaevents.serializer.OrderEventCodec;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository repository;
+    private final SagaEventSender eventSender;
+    private final TransactionTemplate transactionTemplate;
+    private final ObservationRegistry observationRegistry;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration claimTimeout;
+
+    public OutboxRelay(OutboxEventRepository repository,
+                       SagaEventSender eventSender,
+                       TransactionTemplate transactionTemplate,
+                       ObservationRegistry observationRegistry,
+                       int batchSize,
+                       Duration sendTimeout,
+                       Duration claimTimeout) {
+        this.repository = repository;
+        this.eventSender = eventSender;
+        this.transactionTemplate = transactionTemplate;
+        this.observationRegistry = observationRegistry;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.claimTimeout = claimTimeout;
+    }
+
+    /**
+     * Claims a batch in one short transaction and sends it without holding a transaction or row locks. The sent
+     * events are deleted afterwards; a batch that failed is released for the next poll, and the claim of a relay
+     * that died meanwhile expires after {@code outbox.relay.claim-timeout}.
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval}")
+    public void relay() {
+        try {
+            List<OutboxEvent> outboxEvents;
+            do {
+                outboxEvents = transactionTemplate.execute(status -> claimBatch());
+                if (outboxEvents == null || outboxEvents.isEmpty()) {
+                    return;
+                }
+                relayBatch(outboxEvents);
+            } while (outboxEvents.size() == batchSize);
+        }
+        catch (Exception exception) {
+            log.error("Relaying outbox events failed with exception message: {}", exception.getMessage());
+        }
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> outboxEvents = repository.findRelayBatch(now, batchSize);
+        if (!outboxEvents.isEmpty()) {
+            repository.updateClaimedUntil(outboxEvents.stream().map(OutboxEvent::getId).toList(), now.plus(claimTimeout));
+        }
+        return outboxEvents;
+    }
+
+    private void relayBatch(List<OutboxEvent> outboxEvents) {
+        List<Long> ids = outboxEvents.stream().map(OutboxEvent::getId).toList();
+        try {
+            send(outboxEvents);
+        }
+        catch (RuntimeException exception) {
+            transactionTemplate.executeWithoutResult(status -> repository.updateClaimedUntil(ids, null));
+            throw exception;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> repository.deleteAllByIdInBatch(ids));
+        log.debug("Relayed '{}' outbox events", outboxEvents.size());
+    }
+
+    private void send(List<OutboxEvent> outboxEvents) {
+        Observation.createNotStarted("outbox-relay", this.observationRegistry).observe(() -> {
+            Map<String, List<OutboxEvent>> eventsByTopic = outboxEvents.stream()
+                .collect(Collectors.groupingBy(OutboxEvent::getTopic, LinkedHashMap::new, Collectors.toList()));
+
+            List<CompletableFuture<?>> futures = new ArrayList<>(outboxEvents.size());
+            eventsByTopic.forEach((topic, topicEvents) -> topicEvents
+                .forEach(outboxEvent -> futures.add(send(topic, outboxEvent))));
+            eventSender.flush();
+            awaitSends(futures);
+        });
+    }
+
+    private CompletableFuture<?> send(String topic, OutboxEvent outboxEvent) {
+        long publishedAt = outboxEvent.getInsertDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return eventSender.send(topic, outboxEvent.getEventKey(), toOrderEvent(outboxEvent), publishedAt);
+    }
+
+    private void awaitSends(List<CompletableFuture<?>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new OutboxException("Interrupted while waiting for outbox events to be sent", exception);
+        }
+        catch (ExecutionException | TimeoutException exception) {
+            throw new OutboxException("Sending outbox events to kafka failed", exception);
+        }
+    }
+
+    private OrderEvent toOrderEvent(OutboxEvent outboxEvent) {
+        try {
+            return OrderEventCodec.decode(outboxEvent.getPayload());
+        }
+        catch (IOException exception) {
+            throw new OutboxException(String.format("Outbox event '%s' could not be read", outboxEvent.getId()), exception);
+        }
+    }
+}
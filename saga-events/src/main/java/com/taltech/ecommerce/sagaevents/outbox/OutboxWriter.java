@@ -0,0 +1,82 @@
+package com.taltech.ecommerce.sagaevents.outbox;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+import com.taltech.ecommerce.sagaevents.serializer.OrderEventCodec;
+
+public class OutboxWriter {
+
+    private final OutboxEventRepository repository;
+    private final TransactionTemplate newTransactionTemplate;
+
+    public OutboxWriter(OutboxEventRepository repository,
+                        PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Writes the event in the transaction of the business change, so it is published only when that change
+     * commits. An active read-write transaction is required, otherwise the event would be published alone.
+     */
+    public void write(String topic, OrderEvent orderEvent) {
+        write(topic, orderEvent, false);
+    }
+
+    /**
+     * The failure path of a saga step marks its transaction rollback-only and passes {@code rollbackOnly}, so the
+     * event is written in its own transaction and the failure outcome is still published. The caller passes the
+     * flag because the rollback-only state of the surrounding transaction can't be read reliably from here.
+     */
+    public void write(String topic, OrderEvent orderEvent, boolean rollbackOnly) {
+        List<OutboxEvent> outboxEvents = toOutboxEvents(topic, List.of(orderEvent));
+        if (rollbackOnly) {
+            newTransactionTemplate.executeWithoutResult(status -> repository.saveAll(outboxEvents));
+        }
+        else {
+            requireTransaction();
+            repository.saveAll(outboxEvents);
+        }
+    }
+
+    public void writeAll(String topic, List<OrderEvent> orderEvents) {
+        requireTransaction();
+        repository.saveAll(toOutboxEvents(topic, orderEvents));
+    }
+
+    private static void requireTransaction() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+            || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            throw new IllegalStateException("Outbox - Events must be written inside a read-write transaction");
+        }
+    }
+
+    private List<OutboxEvent> toOutboxEvents(String topic, List<OrderEvent> orderEvents) {
+        return orderEvents.stream()
+            .map(orderEvent -> OutboxEvent.builder()
+                .topic(topic)
+                .eventKey(orderEvent.getOrder().getOrderEventStatus().getId())
+                .payload(toPayload(orderEvent))
+                .insertDate(LocalDateTime.now())
+                .build())
+            .toList();
+    }
+
+    private byte[] toPayload(OrderEvent orderEvent) {
+        try {
+            return OrderEventCodec.encode(orderEvent);
+        }
+        catch (IOException exception) {
+            throw new OutboxException("Order event could not be written to the outbox", exception);
+        }
+    }
+}
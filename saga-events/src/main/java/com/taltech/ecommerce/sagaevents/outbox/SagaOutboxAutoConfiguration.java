@@ -0,0 +1,43 @@
+package com.taltech.ecommerce.sagaevents.outbox;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.taltech.ecommerce.sagaevents.producer.SagaEventSender;
+
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Transactional outbox shared by the saga services. Registering this package as an auto-configuration package
+ * lets the JPA auto-configuration of each service pick up {@link OutboxEvent} and {@link OutboxEventRepository}
+ * next to its own entities and repositories.
+ */
+@AutoConfiguration(before = {HibernateJpaAutoConfiguration.class, JpaRepositoriesAutoConfiguration.class})
+@AutoConfigurationPackage
+public class SagaOutboxAutoConfiguration {
+
+    @Bean
+    public OutboxWriter outboxWriter(OutboxEventRepository repository, PlatformTransactionManager transactionManager) {
+        return new OutboxWriter(repository, transactionManager);
+    }
+
+    @Bean
+    public OutboxRelay outboxRelay(OutboxEventRepository repository,
+                                   SagaEventSender eventSender,
+                                   TransactionTemplate transactionTemplate,
+                                   ObservationRegistry observationRegistry,
+                                   @Value("${outbox.relay.batch-size}") int batchSize,
+                                   @Value("${outbox.relay.send-timeout}") Duration sendTimeout,
+                                   @Value("${outbox.relay.claim-timeout}") Duration claimTimeout) {
+        return new OutboxRelay(repository, eventSender, transactionTemplate, observationRegistry, batchSize, sendTimeout,
+            claimTimeout);
+    }
+}
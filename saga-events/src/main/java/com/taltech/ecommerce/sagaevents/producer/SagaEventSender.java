@@ -0,0 +1,96 @@
+package com.taltech.ecommerce.sagaevents.producer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.kafka.KafkaException;
+
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+import com.taltech.ecommerce.sagaevents.transport.SagaTransport;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends saga events through the configured {@link SagaTransport} with a bounded number of unacknowledged
+ * records. A send waits for a free slot, so a slow or unavailable transport pushes back on the caller instead
+ * of growing the producer buffer. Every outcome is recorded asynchronously in the {@code saga.producer.send}
+ * timer, tagged by topic and outcome.
+ */
+@Slf4j
+public class SagaEventSender {
+
+    private static final String SEND_TIMER = "saga.producer.send";
+
+    private final SagaTransport transport;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore inFlight;
+    private final Duration inFlightTimeout;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public SagaEventSender(SagaTransport transport,
+                           MeterRegistry meterRegistry,
+                           int maxInFlight,
+                           Duration inFlightTimeout) {
+        this.transport = transport;
+        this.meterRegistry = meterRegistry;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.inFlightTimeout = inFlightTimeout;
+        Gauge.builder("saga.producer.in.flight", inFlight, semaphore -> maxInFlight - semaphore.availablePermits())
+            .register(meterRegistry);
+    }
+
+    public CompletableFuture<?> send(String topic, String key, OrderEvent orderEvent, long publishedAt) {
+        acquire(topic);
+        long startTime = System.nanoTime();
+        CompletableFuture<?> future;
+        try {
+            future = transport.send(topic, key, orderEvent, publishedAt);
+        }
+        catch (RuntimeException exception) {
+            inFlight.release();
+            record(topic, startTime, exception);
+            throw exception;
+        }
+        return future.whenComplete((result, throwable) -> {
+            inFlight.release();
+            record(topic, startTime, throwable);
+        });
+    }
+
+    public void flush() {
+        transport.flush();
+    }
+
+    private void acquire(String topic) {
+        try {
+            if (!inFlight.tryAcquire(inFlightTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new KafkaException(
+                    String.format("No in-flight slot for topic '%s' within '%s'", topic, inFlightTimeout));
+            }
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new KafkaException(
+                String.format("Interrupted while waiting for an in-flight slot for topic '%s'", topic), exception);
+        }
+    }
+
+    private void record(String topic, long startTime, Throwable throwable) {
+        String outcome = throwable == null ? "success" : "failure";
+        if (throwable != null) {
+            log.error("Sending to '{}' failed with exception message: {}", topic, throwable.getMessage());
+        }
+        timers.computeIfAbsent(topic + ':' + outcome, timerKey -> Timer.builder(SEND_TIMER)
+                .tag("topic", topic)
+                .tag("outcome", outcome)
+                .register(meterRegistry))
+            .record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,46 @@
+package com.taltech.ecommerce.sagaevents.producer;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.util.unit.DataSize;
+
+import com.taltech.ecommerce.sagaevents.transport.SagaTransport;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Shared producer profile of the saga services: records are lingered into larger compressed batches and
+ * sent idempotently, trading a few milliseconds of latency for fewer produce requests.
+ */
+@AutoConfiguration(after = KafkaAutoConfiguration.class)
+public class SagaProducerAutoConfiguration {
+
+    @Bean
+    public DefaultKafkaProducerFactoryCustomizer sagaProducerFactoryCustomizer(
+            @Value("${saga.producer.linger:5ms}") Duration linger,
+            @Value("${saga.producer.batch-size:64KB}") DataSize batchSize,
+            @Value("${saga.producer.compression-type:lz4}") String compressionType,
+            @Value("${saga.producer.idempotence:true}") boolean idempotence) {
+        return producerFactory -> producerFactory.updateConfigs(Map.of(
+            ProducerConfig.LINGER_MS_CONFIG, linger.toMillis(),
+            ProducerConfig.BATCH_SIZE_CONFIG, (int) batchSize.toBytes(),
+            ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType,
+            ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotence,
+            ProducerConfig.ACKS_CONFIG, idempotence ? "all" : "1"));
+    }
+
+    @Bean
+    public SagaEventSender sagaEventSender(SagaTransport sagaTransport,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${saga.producer.max-in-flight:10000}") int maxInFlight,
+                                           @Value("${saga.producer.in-flight-timeout:30s}") Duration inFlightTimeout) {
+        return new SagaEventSender(sagaTransport, meterRegistry, maxInFlight, inFlightTimeout);
+    }
+}
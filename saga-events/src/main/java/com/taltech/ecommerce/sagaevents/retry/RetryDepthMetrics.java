@@ -0,0 +1,31 @@
+package com.taltech.ecommerce.sagaevents.retry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class RetryDepthMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, DistributionSummary> retryDepths = new ConcurrentHashMap<>();
+    private final Map<String, Counter> deadLetters = new ConcurrentHashMap<>();
+
+    public void recordAttempt(String topic, int attempt) {
+        retryDepths.computeIfAbsent(topic, key -> DistributionSummary.builder("saga.retry.depth")
+                .tag("topic", key)
+                .register(meterRegistry))
+            .record(attempt);
+    }
+
+    public void recordDeadLetter(String topic) {
+        deadLetters.computeIfAbsent(topic, key -> Counter.builder("saga.dead.letter")
+                .tag("topic", key)
+                .register(meterRegistry))
+            .increment();
+    }
+}
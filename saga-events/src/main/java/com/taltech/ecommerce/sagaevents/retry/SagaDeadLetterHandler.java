@@ -0,0 +1,22 @@
+package com.taltech.ecommerce.sagaevents.retry;
+
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RequiredArgsConstructor
+@Slf4j
+public class SagaDeadLetterHandler {
+
+    private final RetryDepthMetrics retryDepthMetrics;
+
+    public void handle(OrderEvent orderEvent, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+        log.error("Order event '{}' moved to dead letter topic '{}'",
+            orderEvent.getOrder().getOrderEventStatus().getId(), topic);
+        retryDepthMetrics.recordDeadLetter(topic);
+    }
+}
@@ -0,0 +1,85 @@
+package com.taltech.ecommerce.sagaevents.retry;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Transient failures leave the saga topic instead of blocking its partition. Single-event listeners move the
+ * event through {@code -retry-N} topics with exponential backoff and finally to {@code -dlt}. Batch listeners
+ * can't use retry topics, so they retry the failed part of the batch with the same backoff before publishing
+ * the failed event to {@code -dlt}.
+ * <p>
+ * Topics in {@code saga.retry.excluded-topics} are left to a service's own {@link RetryTopicConfiguration},
+ * usually built with {@link SagaRetryTopics#newBuilder}.
+ */
+@AutoConfiguration(after = KafkaAutoConfiguration.class)
+public class SagaRetryAutoConfiguration {
+
+    @Bean
+    public RetryDepthMetrics retryDepthMetrics(MeterRegistry meterRegistry) {
+        return new RetryDepthMetrics(meterRegistry);
+    }
+
+    @Bean
+    public SagaDeadLetterHandler sagaDeadLetterHandler(RetryDepthMetrics retryDepthMetrics) {
+        return new SagaDeadLetterHandler(retryDepthMetrics);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "kafka.listener.batch.enabled", havingValue = "false", matchIfMissing = true)
+    public RetryTopicConfiguration sagaRetryTopicConfiguration(KafkaTemplate<String, OrderEvent> kafkaTemplate,
+                                                               @Value("${saga.retry.attempts:4}") int attempts,
+                                                               @Value("${saga.retry.initial-interval:1s}") Duration initialInterval,
+                                                               @Value("${saga.retry.multiplier:2.0}") double multiplier,
+                                                               @Value("${saga.retry.max-interval:30s}") Duration maxInterval,
+                                                               @Value("${kafka.topic.partitions:1}") int partitions,
+                                                               @Value("${saga.retry.excluded-topics:}") List<String> excludedTopics) {
+        return SagaRetryTopics.newBuilder(attempts, initialInterval, multiplier, maxInterval, partitions)
+            .excludeTopics(excludedTopics)
+            .create(kafkaTemplate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "kafka.listener.batch.enabled", havingValue = "true")
+    public CommonErrorHandler sagaBatchErrorHandler(KafkaTemplate<String, OrderEvent> kafkaTemplate,
+                                                    RetryDepthMetrics retryDepthMetrics,
+                                                    @Value("${saga.retry.attempts:4}") int attempts,
+                                                    @Value("${saga.retry.initial-interval:1s}") Duration initialInterval,
+                                                    @Value("${saga.retry.multiplier:2.0}") double multiplier,
+                                                    @Value("${saga.retry.max-interval:30s}") Duration maxInterval) {
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(attempts - 1);
+        backOff.setInitialInterval(initialInterval.toMillis());
+        backOff.setMultiplier(multiplier);
+        backOff.setMaxInterval(maxInterval.toMillis());
+
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate, (record, exception) -> {
+            retryDepthMetrics.recordDeadLetter(record.topic() + SagaRetryTopics.DLT_SUFFIX);
+            return new TopicPartition(record.topic() + SagaRetryTopics.DLT_SUFFIX, -1);
+        });
+
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(recoverer, backOff);
+        errorHandler.defaultFalse();
+        TransientFailures.TRANSIENT_EXCEPTIONS.forEach(exceptionType ->
+            errorHandler.addRetryableExceptions(exceptionType.asSubclass(Exception.class)));
+        errorHandler.setRetryListeners((record, exception, deliveryAttempt) ->
+            retryDepthMetrics.recordAttempt(record.topic(), deliveryAttempt));
+        return errorHandler;
+    }
+}
@@ -0,0 +1,31 @@
+package com.taltech.ecommerce.sagaevents.retry;
+
+import java.time.Duration;
+
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+
+/**
+ * Retry topic settings of the saga listeners: attempts, exponential backoff, the transient failures of
+ * {@link TransientFailures} and the {@link SagaDeadLetterHandler}. A service whose topic needs its own retry
+ * topics starts from {@link #newBuilder}, so only the topic and suffixes differ from the shared configuration.
+ */
+public final class SagaRetryTopics {
+
+    public static final String DLT_SUFFIX = "-dlt";
+
+    private SagaRetryTopics() {
+    }
+
+    public static RetryTopicConfigurationBuilder newBuilder(int attempts, Duration initialInterval, double multiplier,
+                                                            Duration maxInterval, int partitions) {
+        return RetryTopicConfigurationBuilder.newInstance()
+            .maxAttempts(attempts)
+            .exponentialBackoff(initialInterval.toMillis(), multiplier, maxInterval.toMillis())
+            .retryOn(TransientFailures.TRANSIENT_EXCEPTIONS)
+            .traversingCauses()
+            .suffixTopicsWithIndexValues()
+            .dltSuffix(DLT_SUFFIX)
+            .autoCreateTopicsWith(partitions, (short) 1)
+            .dltHandlerMethod("sagaDeadLetterHandler", "handle");
+    }
+}
@@ -0,0 +1,71 @@
+package com.taltech.ecommerce.sagaevents.retry;
+
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+/**
+ * Separates failures worth retrying later (lock timeouts, deadlocks, lost connections) from failures that
+ * should fail the saga step right away.
+ */
+public final class TransientFailures {
+
+    static final List<Class<? extends Throwable>> TRANSIENT_EXCEPTIONS = List.of(
+        TransientSagaException.class,
+        TransientDataAccessException.class,
+        RecoverableDataAccessException.class,
+        DataAccessResourceFailureException.class,
+        CannotCreateTransactionException.class,
+        SQLTransientException.class,
+        SQLRecoverableException.class);
+
+    private TransientFailures() {
+    }
+
+    public static boolean isTransient(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            for (Class<? extends Throwable> transientException : TRANSIENT_EXCEPTIONS) {
+                if (transientException.isInstance(cause)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Called first in the catch block of a saga step, so a transient failure rolls the step back and is
+     * retried from a retry topic instead of failing the saga.
+     */
+    public static void rethrowIfTransient(Exception exception) {
+        if (exception instanceof TransientSagaException transientSagaException) {
+            throw transientSagaException;
+        }
+        if (isTransient(exception)) {
+            throw new TransientSagaException(String.format("Transient failure: %s", exception.getMessage()), exception);
+        }
+    }
+
+    /**
+     * Processes a batch one event at a time and reports a transient failure with its index. The events before it
+     * were only processed, whether they commit depends on the caller's transaction. A batch listener may get them
+     * redelivered together with the rest of the batch, so processing them again must be harmless.
+     */
+    public static <T> void processEach(List<T> events, Consumer<T> processor) {
+        for (int index = 0; index < events.size(); index++) {
+            try {
+                processor.accept(events.get(index));
+            }
+            catch (TransientSagaException exception) {
+                throw new BatchListenerFailedException(exception.getMessage(), exception, index);
+            }
+        }
+    }
+}
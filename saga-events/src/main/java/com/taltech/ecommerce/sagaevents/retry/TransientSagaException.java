@@ -0,0 +1,8 @@
+package com.taltech.ecommerce.sagaevents.retry;
+
+public class TransientSagaException extends RuntimeException {
+
+    public TransientSagaException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
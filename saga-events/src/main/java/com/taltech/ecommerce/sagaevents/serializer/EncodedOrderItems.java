@@ -0,0 +1,52 @@
+package com.taltech.ecommerce.sagaevents.serializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractList;
+import java.util.List;
+
+import com.taltech.ecommerce.sagaevents.dto.OrderItemDto;
+
+/**
+ * Read-only item list backed by the encoded item block of a received event. The block is decoded on first
+ * access and written back unchanged when the event is relayed.
+ */
+final class EncodedOrderItems extends AbstractList<OrderItemDto> {
+
+    private final int size;
+    private final byte[] block;
+    private volatile List<OrderItemDto> decoded;
+
+    EncodedOrderItems(int size, byte[] block) {
+        this.size = size;
+        this.block = block;
+    }
+
+    byte[] getBlock() {
+        return block;
+    }
+
+    @Override
+    public OrderItemDto get(int index) {
+        return decoded().get(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private List<OrderItemDto> decoded() {
+        List<OrderItemDto> orderItems = decoded;
+        if (orderItems == null) {
+            try {
+                orderItems = OrderEventCodec.decodeItems(block, size);
+            }
+            catch (IOException exception) {
+                throw new UncheckedIOException("Order items could not be decoded", exception);
+            }
+            decoded = orderItems;
+        }
+        return orderItems;
+    }
+}
@@ -0,0 +1,274 @@
+package com.taltech.ecommerce.sagaevents.serializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.taltech.ecommerce.sagaevents.dto.OrderDto;
+import com.taltech.ecommerce.sagaevents.dto.OrderEventStatusDto;
+import com.taltech.ecommerce.sagaevents.dto.OrderItemDto;
+import com.taltech.ecommerce.sagaevents.enumeration.EventStatus;
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+
+/**
+ * Binary schema of {@link OrderEvent}. Every payload starts with {@link #MAGIC} and the schema version, so it
+ * can never be mistaken for JSON. Nullable values are prefixed with a presence byte, strings and decimals with
+ * their byte length, dates as UTC epoch second and nano, and {@link EventStatus} as its ordinal.
+ * <p>
+ * Schema version 2 carries only the saga header and, when present, the items as a separate length-prefixed
+ * block. The block is decoded on first access, so a participant that only reads the header relays the items
+ * without decoding them. Version 1 records are still read.
+ * <pre>
+ * v2 header: eventId, inventoryStatus, chartStatus, paymentStatus, userId, paymentCode, totalPrice,
+ *            item count, item block length
+ * v2 item:   inventoryCode, quantity, price
+ * v1 order:  eventId, inventoryStatus, chartStatus, paymentStatus, userId, paymentCode, totalPrice,
+ *            insertDate, updateDate, item count, items
+ * v1 item:   inventoryCode, quantity, price, insertDate, updateDate
+ * </pre>
+ */
+public final class OrderEventCodec {
+
+    public static final byte MAGIC = 0x00;
+    public static final byte SCHEMA_VERSION = 2;
+
+    private static final byte SCHEMA_VERSION_1 = 1;
+    private static final EventStatus[] EVENT_STATUSES = EventStatus.values();
+
+    private OrderEventCodec() {
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data.length > 0 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(OrderEvent orderEvent) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeByte(MAGIC);
+        output.writeByte(SCHEMA_VERSION);
+
+        OrderDto order = orderEvent.getOrder();
+        output.writeBoolean(order != null);
+        if (order != null) {
+            writeHeader(output, order);
+            writeItems(output, order.getOrderItems());
+        }
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    public static OrderEvent decode(byte[] data) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(data));
+        input.readByte();
+        byte schemaVersion = input.readByte();
+        if (schemaVersion != SCHEMA_VERSION && schemaVersion != SCHEMA_VERSION_1) {
+            throw new IOException(String.format("Unsupported order event schema version '%s'", schemaVersion));
+        }
+
+        OrderDto order = null;
+        if (input.readBoolean()) {
+            order = schemaVersion == SCHEMA_VERSION ? readOrder(input) : readOrderV1(input);
+        }
+        return OrderEvent.builder()
+            .order(order)
+            .build();
+    }
+
+    static List<OrderItemDto> decodeItems(byte[] block, int itemCount) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(block));
+        List<OrderItemDto> orderItems = new ArrayList<>(itemCount);
+        for (int index = 0; index < itemCount; index++) {
+            orderItems.add(OrderItemDto.builder()
+                .inventoryCode(readString(input))
+                .quantity(readInteger(input))
+                .price(readDecimal(input))
+                .build());
+        }
+        return Collections.unmodifiableList(orderItems);
+    }
+
+    private static void writeHeader(DataOutputStream output, OrderDto order) throws IOException {
+        OrderEventStatusDto orderEventStatus = order.getOrderEventStatus();
+        output.writeBoolean(orderEventStatus != null);
+        if (orderEventStatus != null) {
+            writeString(output, orderEventStatus.getId());
+            writeStatus(output, orderEventStatus.getInventoryStatus());
+            writeStatus(output, orderEventStatus.getChartStatus());
+            writeStatus(output, orderEventStatus.getPaymentStatus());
+        }
+        writeLong(output, order.getUserId());
+        writeString(output, order.getPaymentCode());
+        writeDecimal(output, order.getTotalPrice());
+    }
+
+    private static void writeItems(DataOutputStream output, List<OrderItemDto> orderItems) throws IOException {
+        if (orderItems == null) {
+            output.writeInt(-1);
+            return;
+        }
+
+        byte[] block;
+        if (orderItems instanceof EncodedOrderItems encodedOrderItems) {
+            block = encodedOrderItems.getBlock();
+        }
+        else {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 * orderItems.size());
+            DataOutputStream blockOutput = new DataOutputStream(bytes);
+            for (OrderItemDto orderItem : orderItems) {
+                writeString(blockOutput, orderItem.getInventoryCode());
+                writeInteger(blockOutput, orderItem.getQuantity());
+                writeDecimal(blockOutput, orderItem.getPrice());
+            }
+            blockOutput.flush();
+            block = bytes.toByteArray();
+        }
+        output.writeInt(orderItems.size());
+        output.writeInt(block.length);
+        output.write(block);
+    }
+
+    private static OrderDto readOrder(DataInputStream input) throws IOException {
+        OrderDto.OrderDtoBuilder order = readHeader(input);
+
+        int itemCount = input.readInt();
+        if (itemCount >= 0) {
+            byte[] block = new byte[input.readInt()];
+            input.readFully(block);
+            order.orderItems(new EncodedOrderItems(itemCount, block));
+        }
+        return order.build();
+    }
+
+    private static OrderDto readOrderV1(DataInputStream input) throws IOException {
+        OrderDto.OrderDtoBuilder order = readHeader(input)
+            .insertDate(readDate(input))
+            .updateDate(readDate(input));
+
+        int itemCount = input.readInt();
+        if (itemCount >= 0) {
+            List<OrderItemDto> orderItems = new ArrayList<>(itemCount);
+            for (int index = 0; index < itemCount; index++) {
+                orderItems.add(OrderItemDto.builder()
+                    .inventoryCode(readString(input))
+                    .quantity(readInteger(input))
+                    .price(readDecimal(input))
+                    .insertDate(readDate(input))
+                    .updateDate(readDate(input))
+                    .build());
+            }
+            order.orderItems(Collections.unmodifiableList(orderItems));
+        }
+        return order.build();
+    }
+
+    private static OrderDto.OrderDtoBuilder readHeader(DataInputStream input) throws IOException {
+        OrderDto.OrderDtoBuilder order = OrderDto.builder();
+        if (input.readBoolean()) {
+            order.orderEventStatus(OrderEventStatusDto.builder()
+                .id(readString(input))
+                .inventoryStatus(readStatus(input))
+                .chartStatus(readStatus(input))
+                .paymentStatus(readStatus(input))
+                .build());
+        }
+        return order.userId(readLong(input))
+            .paymentCode(readString(input))
+            .totalPrice(readDecimal(input));
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeStatus(DataOutputStream output, EventStatus status) throws IOException {
+        output.writeByte(status == null ? -1 : status.ordinal());
+    }
+
+    private static EventStatus readStatus(DataInputStream input) throws IOException {
+        byte ordinal = input.readByte();
+        if (ordinal >= EVENT_STATUSES.length) {
+            throw new IOException(String.format("Unknown event status ordinal '%s'", ordinal));
+        }
+        return ordinal < 0 ? null : EVENT_STATUSES[ordinal];
+    }
+
+    private static void writeLong(DataOutputStream output, Long value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeLong(value);
+        }
+    }
+
+    private static Long readLong(DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readLong() : null;
+    }
+
+    private static void writeInteger(DataOutputStream output, Integer value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeInt(value);
+        }
+    }
+
+    private static Integer readInteger(DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readInt() : null;
+    }
+
+    private static void writeDecimal(DataOutputStream output, BigDecimal value) throws IOException {
+        if (value == null) {
+            output.writeByte(-1);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        // The length byte is read back signed, and a negative length means null
+        if (unscaled.length > Byte.MAX_VALUE) {
+            throw new IOException(String.format("Decimal with '%s' unscaled bytes is too large to encode", unscaled.length));
+        }
+        output.writeByte(unscaled.length);
+        output.write(unscaled);
+        output.writeInt(value.scale());
+    }
+
+    private static BigDecimal readDecimal(DataInputStream input) throws IOException {
+        int length = input.readByte();
+        if (length < 0) {
+            return null;
+        }
+        byte[] unscaled = new byte[length];
+        input.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), input.readInt());
+    }
+
+    private static LocalDateTime readDate(DataInputStream input) throws IOException {
+        return input.readBoolean()
+            ? LocalDateTime.ofEpochSecond(input.readLong(), input.readInt(), ZoneOffset.UTC)
+            : null;
+    }
+}
@@ -0,0 +1,34 @@
+package com.taltech.ecommerce.sagaevents.serializer;
+
+import java.io.IOException;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.JacksonUtils;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+
+/**
+ * Reads {@link OrderEvent} written in the {@link OrderEventCodec} binary schema, falling back to JSON for
+ * records produced before the migration. The JSON reader is bound to {@link OrderEvent} once, so no type
+ * headers are resolved per record.
+ */
+public class OrderEventDeserializer implements Deserializer<OrderEvent> {
+
+    private static final ObjectReader JSON_READER = JacksonUtils.enhancedObjectMapper().readerFor(OrderEvent.class);
+
+    @Override
+    public OrderEvent deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return OrderEventCodec.isBinary(data)
+                ? OrderEventCodec.decode(data)
+                : JSON_READER.readValue(data);
+        } catch (IOException e) {
+            throw new SerializationException(String.format("Can't deserialize order event from topic '%s'", topic), e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.taltech.ecommerce.sagaevents.serializer;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.JacksonUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+
+/**
+ * Writes {@link OrderEvent} in the {@link OrderEventCodec} binary schema. Setting the producer property
+ * {@value #FORMAT_CONFIG} to {@code json} keeps writing JSON while consumers are still being migrated.
+ */
+public class OrderEventSerializer implements Serializer<OrderEvent> {
+
+    public static final String FORMAT_CONFIG = "order.event.format";
+    public static final String JSON_FORMAT = "json";
+
+    private static final ObjectWriter JSON_WRITER = JacksonUtils.enhancedObjectMapper().writerFor(OrderEvent.class);
+
+    private boolean json;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object format = configs.get(FORMAT_CONFIG);
+        json = format != null && JSON_FORMAT.equalsIgnoreCase(format.toString());
+    }
+
+    @Override
+    public byte[] serialize(String topic, OrderEvent orderEvent) {
+        if (orderEvent == null) {
+            return null;
+        }
+        try {
+            return json ? JSON_WRITER.writeValueAsBytes(orderEvent) : OrderEventCodec.encode(orderEvent);
+        } catch (JsonProcessingException e) {
+            throw new SerializationException(String.format("Can't serialize order event for topic '%s'", topic), e);
+        } catch (IOException e) {
+            throw new SerializationException(String.format("Can't encode order event for topic '%s'", topic), e);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.taltech.ecommerce.sagaevents.transport;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjLongConsumer;
+
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.util.ReflectionUtils;
+
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+import com.taltech.ecommerce.sagaevents.metrics.HopMetrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Subscribes the {@code @KafkaListener} methods of the service to the {@link InMemorySagaBus} when the in-memory
+ * transport is selected. Single-event and batch listener methods are both supported; a batch method receives
+ * one event per call. Like Kafka, the bus delivers every event once per consumer group; the group is the
+ * {@code groupId} of the listener or else {@code spring.kafka.consumer.group-id}. Hop latency is recorded through
+ * {@link HopMetrics} like for Kafka listeners.
+ */
+@Slf4j
+public class InMemoryListenerRegistrar implements BeanPostProcessor, SmartLifecycle, EnvironmentAware, BeanFactoryAware {
+
+    private final InMemorySagaBus bus = InMemorySagaBus.getInstance();
+    private final Map<Subscription, ObjLongConsumer<OrderEvent>> handlers = new LinkedHashMap<>();
+    private final List<Subscription> subscriptions = new ArrayList<>();
+    private Environment environment;
+    private BeanFactory beanFactory;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Map<Method, KafkaListener> listenerMethods = MethodIntrospector.selectMethods(AopUtils.getTargetClass(bean),
+            (MethodIntrospector.MetadataLookup<KafkaListener>) method ->
+                AnnotatedElementUtils.findMergedAnnotation(method, KafkaListener.class));
+
+        listenerMethods.forEach((method, kafkaListener) -> {
+            if (method.getParameterCount() != 1) {
+                throw new IllegalStateException(String.format("In-memory listener '%s' must take the event as its only parameter", method));
+            }
+            Method invocableMethod = AopUtils.selectInvocableMethod(method, bean.getClass());
+            boolean batch = List.class.isAssignableFrom(method.getParameterTypes()[0]);
+            String group = groupOf(kafkaListener);
+            for (String topic : kafkaListener.topics()) {
+                Subscription subscription = new Subscription(environment.resolvePlaceholders(topic), group);
+                if (handlers.containsKey(subscription)) {
+                    throw new IllegalStateException(String.format("In-memory topic '%s' already has a listener in group '%s'",
+                        subscription.topic(), group));
+                }
+                handlers.put(subscription, (orderEvent, publishedAt) ->
+                    ReflectionUtils.invokeMethod(invocableMethod, bean, batch ? List.of(orderEvent) : orderEvent));
+            }
+        });
+        return bean;
+    }
+
+    private String groupOf(KafkaListener kafkaListener) {
+        String groupId = environment.resolvePlaceholders(kafkaListener.groupId());
+        if (!groupId.isEmpty()) {
+            return groupId;
+        }
+        return environment.getProperty("spring.kafka.consumer.group-id",
+            environment.getProperty("spring.application.name", "default"));
+    }
+
+    @Override
+    public void start() {
+        int partitions = environment.getProperty("kafka.topic.partitions", Integer.class, 1);
+        int capacity = environment.getProperty("saga.transport.in-memory.capacity", Integer.class, 10000);
+        int consumerThreads = environment.getProperty("saga.transport.in-memory.consumer-threads", Integer.class,
+            environment.getProperty("spring.kafka.listener.concurrency", Integer.class, 1));
+        HopMetrics hopMetrics = beanFactory.getBean(HopMetrics.class);
+
+        handlers.forEach((subscription, handler) -> {
+            bus.subscribe(subscription.topic(), subscription.group(), partitions, capacity, consumerThreads,
+                measured(subscription.topic(), handler, hopMetrics));
+            subscriptions.add(subscription);
+            log.info("Subscribed to in-memory topic '{}' in group '{}' with '{}' consumer threads",
+                subscription.topic(), subscription.group(), consumerThreads);
+        });
+    }
+
+    private ObjLongConsumer<OrderEvent> measured(String topic, ObjLongConsumer<OrderEvent> handler, HopMetrics hopMetrics) {
+        return (orderEvent, publishedAt) -> {
+            hopMetrics.recordQueueWait(topic, publishedAt);
+            long startTime = System.nanoTime();
+            boolean success = false;
+            try {
+                handler.accept(orderEvent, publishedAt);
+                success = true;
+            }
+            finally {
+                hopMetrics.recordProcessing(topic, startTime, success);
+            }
+        };
+    }
+
+    @Override
+    public void stop() {
+        subscriptions.forEach(subscription -> bus.unsubscribe(subscription.topic(), subscription.group()));
+        subscriptions.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return !subscriptions.isEmpty();
+    }
+
+    private record Subscription(String topic, String group) {
+    }
+}
@@ -0,0 +1,264 @@
+package com.taltech.ecommerce.sagaevents.transport;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.IntStream;
+
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * JVM-wide event bus shared by every service context running in the same process. Like a Kafka topic, each
+ * topic is split into a fixed number of partitions and a key always maps to the same partition, so events of
+ * one saga keep their order. Every consumer group of a topic gets its own copy of each event in its own bounded
+ * lock-free partition queues, and the consumer threads of the group split those partitions between them. Events
+ * published before any group subscribed are kept for the first group, a later group only sees new events. Each
+ * event travels with the epoch millisecond it was published at, which the subscriber receives next to it.
+ */
+@Slf4j
+public final class InMemorySagaBus {
+
+    private static final InMemorySagaBus INSTANCE = new InMemorySagaBus();
+    private static final long FULL_PARTITION_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final Map<String, Topic> topics = new ConcurrentHashMap<>();
+
+    private InMemorySagaBus() {
+    }
+
+    public static InMemorySagaBus getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Waits up to {@code timeout} while the partition of the key is full in any consumer group. The event reaches
+     * every group or, when the wait times out, none of them, so a sender retrying a failed publish doesn't deliver
+     * it twice to the groups that had room.
+     */
+    public boolean publish(String topic, String key, OrderEvent orderEvent, long publishedAt, int partitions, int capacity,
+        Duration timeout) {
+        return topic(topic, partitions, capacity).offer(key, new Envelope(orderEvent, publishedAt), timeout);
+    }
+
+    public void subscribe(String topic, String group, int partitions, int capacity, int consumerThreads,
+        ObjLongConsumer<OrderEvent> handler) {
+        topic(topic, partitions, capacity).subscribe(group, consumerThreads, handler);
+    }
+
+    public void unsubscribe(String topic, String group) {
+        Topic foundTopic = topics.get(topic);
+        if (foundTopic != null) {
+            foundTopic.unsubscribe(group);
+        }
+    }
+
+    private Topic topic(String topic, int partitions, int capacity) {
+        return topics.computeIfAbsent(topic, name -> new Topic(name, partitions, capacity));
+    }
+
+    private static final class Topic {
+
+        private final String name;
+        private final int partitionCount;
+        private final int capacity;
+        private final Map<String, Group> groups = new ConcurrentHashMap<>();
+        private volatile List<Partition> unclaimedPartitions;
+
+        private Topic(String name, int partitionCount, int capacity) {
+            this.name = name;
+            this.partitionCount = partitionCount;
+            this.capacity = capacity;
+            this.unclaimedPartitions = newPartitions();
+        }
+
+        private List<Partition> newPartitions() {
+            return IntStream.range(0, partitionCount).mapToObj(index -> new Partition(capacity)).toList();
+        }
+
+        private boolean offer(String key, Envelope envelope, Duration timeout) {
+            int index = key == null ? 0 : (key.hashCode() & Integer.MAX_VALUE) % partitionCount;
+            // Read before the groups: a subscribing group is added before it claims these partitions.
+            List<Partition> unclaimed = unclaimedPartitions;
+            List<Partition> partitions = unclaimed != null && groups.isEmpty()
+                ? List.of(unclaimed.get(index))
+                : groups.values().stream().map(group -> group.partitions.get(index)).toList();
+            // Room is reserved in every group first, so a full partition in one group leaves no copy in the others.
+            long deadline = System.nanoTime() + timeout.toNanos();
+            for (int reserved = 0; reserved < partitions.size(); reserved++) {
+                if (!partitions.get(reserved).reserve(deadline)) {
+                    partitions.subList(0, reserved).forEach(Partition::cancelReservation);
+                    return false;
+                }
+            }
+            partitions.forEach(partition -> enqueue(partition, envelope));
+            return true;
+        }
+
+        private void enqueue(Partition partition, Envelope envelope) {
+            partition.enqueue(envelope);
+            Worker owner = partition.owner;
+            if (owner != null) {
+                LockSupport.unpark(owner.thread);
+            }
+        }
+
+        private synchronized void subscribe(String groupName, int consumerThreads, ObjLongConsumer<OrderEvent> handler) {
+            Group group = groups.get(groupName);
+            if (group == null) {
+                List<Partition> unclaimed = unclaimedPartitions;
+                group = new Group(unclaimed != null ? unclaimed : newPartitions());
+                groups.put(groupName, group);
+                unclaimedPartitions = null;
+            }
+            else if (!group.workers.isEmpty()) {
+                throw new IllegalStateException(String.format("Topic '%s' already has a subscriber in group '%s'", name, groupName));
+            }
+            List<Partition> partitions = group.partitions;
+            int threadCount = Math.max(1, Math.min(consumerThreads, partitions.size()));
+            List<Worker> newWorkers = IntStream.range(0, threadCount)
+                .mapToObj(index -> new Worker(String.format("saga-bus-%s-%s-%s", name, groupName, index), handler,
+                    IntStream.range(0, partitions.size())
+                        .filter(partition -> partition % threadCount == index)
+                        .mapToObj(partitions::get)
+                        .toList()))
+                .toList();
+            group.workers = newWorkers;
+            newWorkers.forEach(Worker::start);
+        }
+
+        /**
+         * The group keeps its partitions, so events published while it has no subscriber wait for it.
+         */
+        private synchronized void unsubscribe(String groupName) {
+            Group group = groups.get(groupName);
+            if (group == null) {
+                return;
+            }
+            group.workers.forEach(Worker::stop);
+            group.partitions.forEach(partition -> partition.owner = null);
+            group.workers = List.of();
+        }
+    }
+
+    private static final class Group {
+
+        private final List<Partition> partitions;
+        private volatile List<Worker> workers = List.of();
+
+        private Group(List<Partition> partitions) {
+            this.partitions = partitions;
+        }
+    }
+
+    private record Envelope(OrderEvent orderEvent, long publishedAt) {
+    }
+
+    private static final class Partition {
+
+        private final Queue<Envelope> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final int capacity;
+        private volatile Worker owner;
+
+        private Partition(int capacity) {
+            this.capacity = capacity;
+        }
+
+        /**
+         * Takes a slot for an event enqueued right after, waiting until the deadline while the partition is full.
+         */
+        private boolean reserve(long deadline) {
+            while (true) {
+                int currentSize = size.get();
+                if (currentSize < capacity) {
+                    if (size.compareAndSet(currentSize, currentSize + 1)) {
+                        return true;
+                    }
+                }
+                else if (System.nanoTime() - deadline >= 0) {
+                    return false;
+                }
+                else {
+                    LockSupport.parkNanos(FULL_PARTITION_PARK_NANOS);
+                }
+            }
+        }
+
+        private void cancelReservation() {
+            size.decrementAndGet();
+        }
+
+        private void enqueue(Envelope envelope) {
+            queue.offer(envelope);
+        }
+
+        private Envelope poll() {
+            Envelope envelope = queue.poll();
+            if (envelope != null) {
+                size.decrementAndGet();
+            }
+            return envelope;
+        }
+    }
+
+    private static final class Worker implements Runnable {
+
+        private final Thread thread;
+        private final ObjLongConsumer<OrderEvent> handler;
+        private final List<Partition> partitions;
+        private volatile boolean running = true;
+
+        private Worker(String name, ObjLongConsumer<OrderEvent> handler, List<Partition> partitions) {
+            this.thread = new Thread(this, name);
+            this.thread.setDaemon(true);
+            this.handler = handler;
+            this.partitions = partitions;
+        }
+
+        private void start() {
+            partitions.forEach(partition -> partition.owner = this);
+            thread.start();
+        }
+
+        private void stop() {
+            running = false;
+            LockSupport.unpark(thread);
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                boolean handled = false;
+                for (Partition partition : partitions) {
+                    Envelope envelope = partition.poll();
+                    if (envelope != null) {
+                        handle(envelope);
+                        handled = true;
+                    }
+                }
+                if (!handled) {
+                    LockSupport.park(this);
+                }
+            }
+        }
+
+        private void handle(Envelope envelope) {
+            try {
+                handler.accept(envelope.orderEvent(), envelope.publishedAt());
+            }
+            catch (Exception exception) {
+                log.error("Handling in-memory event '{}' on '{}' failed with exception message: {}",
+                    envelope.orderEvent().getOrder().getOrderEventStatus().getId(), thread.getName(), exception.getMessage());
+            }
+        }
+    }
+}
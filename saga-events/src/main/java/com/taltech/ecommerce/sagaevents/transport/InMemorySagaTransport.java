@@ -0,0 +1,36 @@
+package com.taltech.ecommerce.sagaevents.transport;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.kafka.KafkaException;
+
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Publishes to the {@link InMemorySagaBus}. A send is complete once the event is queued on its partition.
+ */
+@RequiredArgsConstructor
+public class InMemorySagaTransport implements SagaTransport {
+
+    private final InMemorySagaBus bus;
+    private final int partitions;
+    private final int capacity;
+    private final Duration offerTimeout;
+
+    @Override
+    public CompletableFuture<?> send(String topic, String key, OrderEvent orderEvent, long publishedAt) {
+        if (bus.publish(topic, key, orderEvent, publishedAt, partitions, capacity, offerTimeout)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.failedFuture(new KafkaException(
+            String.format("In-memory topic '%s' stayed full for '%s'", topic, offerTimeout)));
+    }
+
+    @Override
+    public void flush() {
+        // Events are handed over when they are queued, there is nothing to flush.
+    }
+}
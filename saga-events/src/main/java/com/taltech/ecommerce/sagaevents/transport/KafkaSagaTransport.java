@@ -0,0 +1,29 @@
+package com.taltech.ecommerce.sagaevents.transport;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+import com.taltech.ecommerce.sagaevents.metrics.HopMetrics;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class KafkaSagaTransport implements SagaTransport {
+
+    private final KafkaTemplate<String, OrderEvent> kafkaTemplate;
+
+    @Override
+    public CompletableFuture<?> send(String topic, String key, OrderEvent orderEvent, long publishedAt) {
+        ProducerRecord<String, OrderEvent> producerRecord = new ProducerRecord<>(topic, key, orderEvent);
+        producerRecord.headers().add(HopMetrics.PUBLISHED_AT_HEADER, HopMetrics.toHeaderValue(publishedAt));
+        return kafkaTemplate.send(producerRecord);
+    }
+
+    @Override
+    public void flush() {
+        kafkaTemplate.flush();
+    }
+}
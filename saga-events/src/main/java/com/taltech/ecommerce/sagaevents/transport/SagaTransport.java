@@ -0,0 +1,17 @@
+package com.taltech.ecommerce.sagaevents.transport;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+
+/**
+ * Carries saga events between the services. Events with the same key are delivered in the order they were sent.
+ * {@code publishedAt} is the epoch millisecond the event was published by the saga step, so consumers can
+ * measure how long the hop took.
+ */
+public interface SagaTransport {
+
+    CompletableFuture<?> send(String topic, String key, OrderEvent orderEvent, long publishedAt);
+
+    void flush();
+}
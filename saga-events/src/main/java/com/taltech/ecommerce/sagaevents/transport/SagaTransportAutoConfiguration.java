@@ -0,0 +1,40 @@
+package com.taltech.ecommerce.sagaevents.transport;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import com.taltech.ecommerce.sagaevents.event.OrderEvent;
+
+/**
+ * Selects how saga events travel with {@code saga.transport}: {@code kafka} (default) or {@code in-memory} for
+ * services sharing one JVM without a broker.
+ */
+@AutoConfiguration(after = KafkaAutoConfiguration.class)
+public class SagaTransportAutoConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "saga.transport", havingValue = "kafka", matchIfMissing = true)
+    public SagaTransport kafkaSagaTransport(KafkaTemplate<String, OrderEvent> kafkaTemplate) {
+        return new KafkaSagaTransport(kafkaTemplate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "saga.transport", havingValue = "in-memory")
+    public SagaTransport inMemorySagaTransport(@Value("${kafka.topic.partitions:1}") int partitions,
+                                               @Value("${saga.transport.in-memory.capacity:10000}") int capacity,
+                                               @Value("${saga.transport.in-memory.offer-timeout:30s}") Duration offerTimeout) {
+        return new InMemorySagaTransport(InMemorySagaBus.getInstance(), partitions, capacity, offerTimeout);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "saga.transport", havingValue = "in-memory")
+    public static InMemoryListenerRegistrar inMemoryListenerRegistrar() {
+        return new InMemoryListenerRegistrar();
+    }
+}
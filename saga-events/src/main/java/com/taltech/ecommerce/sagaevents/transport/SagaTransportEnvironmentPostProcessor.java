@@ -0,0 +1,24 @@
+package com.taltech.ecommerce.sagaevents.transport;
+
+import java.util.Map;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * With the in-memory transport the Kafka listener containers must not start and no topics are created, so the
+ * services come up without a broker. Explicitly configured values still win.
+ */
+public class SagaTransportEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if ("in-memory".equals(environment.getProperty("saga.transport"))) {
+            environment.getPropertySources().addLast(new MapPropertySource("sagaInMemoryTransport", Map.of(
+                "spring.kafka.listener.auto-startup", "false",
+                "spring.kafka.admin.auto-create", "false")));
+        }
+    }
+}
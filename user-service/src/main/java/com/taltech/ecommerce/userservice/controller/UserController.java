@@ -1,8 +1,13 @@
 package com.taltech.ecommerce.userservice.controller;
 
+import java.util.List;
+
 import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
@@ -12,6 +17,7 @@ import com.taltech.ecommerce.userservice.mapper.UserMapper;
 import com.taltech.ecommerce.userservice.model.User;
 import com.taltech.ecommerce.userservice.service.UserService;
 
+import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -32,4 +38,18 @@ public class UserController {
         User foundUser = service.findById(id);
         return mapper.toDto(foundUser);
     }
+
+    @PostMapping("/existing")
+    @ResponseStatus(HttpStatus.OK)
+    public List<Long> findExistingIds(@RequestBody List<Long> ids) {
+        log.info("Received existing users request for '{}' ids", ids.size());
+
+        return service.findExistingIds(ids);
+    }
+
+    @ExceptionHandler(EntityNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public void handleNotFound(EntityNotFoundException exception) {
+        log.info("User request rejected with message: {}", exception.getMessage());
+    }
 }
@@ -1,6 +1,11 @@
 package com.taltech.ecommerce.userservice.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.taltech.ecommerce.userservice.model.User;
@@ -8,4 +13,6 @@ import com.taltech.ecommerce.userservice.model.User;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    @Query("select u.id from User u where u.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
@@ -1,5 +1,7 @@
 package com.taltech.ecommerce.userservice.service;
 
+import java.util.List;
+
 import org.springframework.stereotype.Service;
 
 import com.taltech.ecommerce.userservice.model.User;
@@ -20,4 +22,9 @@ public class UserService {
         return repository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException(String.format("User with id '%s' not found", id)));
     }
+
+    public List<Long> findExistingIds(List<Long> ids) {
+        log.info("Finding existing users among '{}' ids", ids.size());
+        return repository.findExistingIds(ids);
+    }
 }